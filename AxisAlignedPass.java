@@ -0,0 +1,163 @@
+/* *****************************************************************************
+ *  Name: Willy Chang
+ *  Date: 10/18/2026
+ *  Description: AxisAlignedPass
+ **************************************************************************** */
+
+import java.util.Arrays;
+
+public final class AxisAlignedPass {
+    /**
+     * Private constructor, this class only has static methods.
+     */
+    private AxisAlignedPass() {
+    }
+
+    /**
+     * Scratch arrays of the column sort. Callers that run the pass many
+     * times keep one, so that the pass does not allocate once the arrays are
+     * large enough.
+     */
+    static final class Scratch {
+        private int[] order = new int[0];
+        private int[] aux = new int[0];
+        private int[] keys = new int[0];
+        private int[] keyAux = new int[0];
+        private final int[] counts = new int[257];
+
+        /**
+         * Makes sure the arrays can hold {@code n} points.
+         *
+         * @param n number of points
+         */
+        private void ensureCapacity(int n) {
+            if (order.length < n) {
+                order = new int[n];
+                aux = new int[n];
+                keys = new int[n];
+                keyAux = new int[n];
+            }
+        }
+    }
+
+    /**
+     * Finds every maximal horizontal and vertical line segment that connects
+     * 4+ points of the store in O(n) time.
+     *
+     * @param store points to process
+     * @param sink receives the segments
+     */
+    public static void find(PointStore store, SegmentSink sink) {
+        find(store, 4, sink);
+    }
+
+    /**
+     * Finds every maximal horizontal and vertical line segment that connects
+     * at least {@code minPoints} points of the store in O(n) time. The points
+     * of a store are in ascending order, so the points of a row are already
+     * next to each other. The columns are found by a stable radix sort of the
+     * indices by x-coordinate, which keeps the points of each column in
+     * ascending order. The rows are passed to the sink first, then the
+     * columns by x-coordinate.
+     *
+     * @param store points to process
+     * @param minPoints smallest number of points of a reported segment, at
+     * least 2
+     * @param sink receives the segments
+     */
+    public static void find(PointStore store, int minPoints, SegmentSink sink) {
+        find(store, minPoints, sink, new Scratch());
+    }
+
+    /**
+     * Finds the horizontal and vertical segments like find, sorting the
+     * columns in the given scratch arrays.
+     *
+     * @param store points to process
+     * @param minPoints smallest number of points of a reported segment, at
+     * least 2
+     * @param sink receives the segments
+     * @param scratch scratch arrays of the column sort
+     */
+    static void find(PointStore store, int minPoints, SegmentSink sink, Scratch scratch) {
+        if (minPoints < 2)
+            throw new IllegalArgumentException("A segment needs at least 2 points.");
+        int n = store.size();
+
+        // Rows: runs of equal y-coordinates.
+        for (int first = 0, last = 1; first < n; last++) {
+            while (last < n && store.y(last) == store.y(first))
+                last++;
+            if (last - first >= minPoints)
+                sink.segment(first, last - 1);
+            first = last;
+        }
+
+        // Columns: runs of equal x-coordinates after sorting by x.
+        int[] byX = sortByX(store, scratch);
+        for (int first = 0, last = 1; first < n; last++) {
+            while (last < n && store.x(byX[last]) == store.x(byX[first]))
+                last++;
+            if (last - first >= minPoints)
+                sink.segment(byX[first], byX[last - 1]);
+            first = last;
+        }
+    }
+
+    /**
+     * Stable LSD radix sort of the indices of the store by x-coordinate,
+     * skipping the bytes that are the same for every point.
+     *
+     * @param store points to sort
+     * @return the indices of the points, ordered by x-coordinate and then by
+     * index
+     */
+    static int[] sortByX(PointStore store) {
+        return sortByX(store, new Scratch());
+    }
+
+    /**
+     * Sorts the indices of the store by x-coordinate like sortByX, in the
+     * given scratch arrays.
+     *
+     * @param store points to sort
+     * @param scratch scratch arrays of the sort
+     * @return the indices of the points, ordered by x-coordinate and then by
+     * index, in one of the scratch arrays
+     */
+    static int[] sortByX(PointStore store, Scratch scratch) {
+        int n = store.size();
+        scratch.ensureCapacity(n);
+        int[] order = scratch.order;
+        int[] aux = scratch.aux;
+        int[] keys = scratch.keys;
+        int[] keyAux = scratch.keyAux;
+        for (int i = 0; i < n; i++) {
+            order[i] = i;
+            keys[i] = store.x(i) ^ Integer.MIN_VALUE;
+        }
+
+        int[] counts = scratch.counts;
+        for (int shift = 0; shift < 32 && n > 0; shift += 8) {
+            Arrays.fill(counts, 0);
+            for (int i = 0; i < n; i++)
+                counts[((keys[i] >>> shift) & 0xff) + 1]++;
+            if (counts[((keys[0] >>> shift) & 0xff) + 1] == n)
+                continue;
+            for (int r = 0; r < 256; r++)
+                counts[r + 1] += counts[r];
+            for (int i = 0; i < n; i++) {
+                int slot = counts[(keys[i] >>> shift) & 0xff]++;
+                keyAux[slot] = keys[i];
+                aux[slot] = order[i];
+            }
+            int[] temp = keys;
+            keys = keyAux;
+            keyAux = temp;
+            temp = order;
+            order = aux;
+            aux = temp;
+        }
+        return order;
+    }
+}
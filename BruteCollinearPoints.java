@@ -8,12 +8,11 @@ import edu.princeton.cs.algs4.In;
 import edu.princeton.cs.algs4.StdDraw;
 import edu.princeton.cs.algs4.StdOut;
 
-import java.util.ArrayList;
-import java.util.Arrays;
-
 public class BruteCollinearPoints {
-    // Storing line segments connecting collinear points.
-    private ArrayList<LineSegment> lines = new ArrayList<>();
+    // Storing the points and the line segments connecting collinear points,
+    // as endpoint indices into the points.
+    private final PointStore store;
+    private final SegmentBuffer lines = new SegmentBuffer();
 
     /**
      * Constructor that takes in an array of Points. Processes 4 points at a time
@@ -23,53 +22,84 @@ public class BruteCollinearPoints {
      * @param points array of Points
      */
     public BruteCollinearPoints(Point[] points) {
+        this(points, false);
+    }
+
+    /**
+     * Constructor that takes in an array of Points and optionally merges
+     * duplicate points into one point instead of rejecting them.
+     *
+     * @param points array of Points
+     * @param mergeDuplicates whether to merge equal points
+     */
+    public BruteCollinearPoints(Point[] points, boolean mergeDuplicates) {
         if ((points == null) || (points.length == 0))
             throw new IllegalArgumentException("No points given.");
 
-        Point[] copy = points.clone();
+        // Check for null points or duplicates and organize the points so that
+        // they are in ascending order (see Points.compareTo).
+        store = PointStore.of(points, mergeDuplicates);
+        int n = store.size();
 
-        // Check Points array to see if there are null points or duplicates.
-        for (int a = 0; a < copy.length - 1; a++) {
-            if (copy[a] == null) {
-                throw new IllegalArgumentException("Point is null.");
-            }
-            for (int b = a + 1; b < copy.length; b++) {
-                if (copy[b] == null) {
-                    throw new IllegalArgumentException("Point is null.");
-                }
-
-                if (copy[a].compareTo(copy[b]) == 0) {
-                    throw new IllegalArgumentException("Duplicate points found.");
+        /*
+         * For every combination of 4 points, check that a-b-c and a-b-d are
+         * collinear with exact integer orientation tests. If they are, then
+         * add the segment from points {@code a} and {@code d} to
+         * {@code lines}.
+         */
+        for (int a = 0; a < n - 3; a++) {
+            for (int b = a + 1; b < n - 2; b++) {
+                for (int c = b + 1; c < n - 1; c++) {
+                    if (store.orientation(a, b, c) == 0) {
+                        for (int d = c + 1; d < n; d++) {
+                            if (store.orientation(a, b, d) == 0) {
+                                lines.segment(a, d);
+                            }
+                        }
+                    }
                 }
             }
         }
+    }
 
-        // Organize the points so that they are ascending order
-        // (see Points.compareTo).
-        Arrays.sort(copy);
+    /**
+     * Constructor that takes in an array of Points and finds the maximal
+     * lines that connect at least {@code minPoints} points. Unlike the
+     * constructors above, which report every combination of 4 collinear
+     * points, each line is reported once, from its smallest to its largest
+     * point.
+     *
+     * @param points array of Points
+     * @param mergeDuplicates whether to merge equal points
+     * @param minPoints smallest number of points of a line, at least 2
+     */
+    public BruteCollinearPoints(Point[] points, boolean mergeDuplicates, int minPoints) {
+        if ((points == null) || (points.length == 0))
+            throw new IllegalArgumentException("No points given.");
+        if (minPoints < 2)
+            throw new IllegalArgumentException("A segment needs at least 2 points.");
+        store = PointStore.of(points, mergeDuplicates);
+        int n = store.size();
 
         /*
-         * For every combination of 4 points, check the slopes between a-b, a-c,
-         * and a-d. If the slopes are the same, then add the {@code LineSegment}
-         * from points {@code copy[a]} and {copy[d]} to the {@code lines} array.
+         * For every pair of points a < b that has room for minPoints - 2
+         * points between them, count the points on the line through a and b.
+         * The pair is a maximal line if none of them is outside of a and b.
          */
-        for (int a = 0; a < copy.length - 3; a++) {
-            for (int b = a + 1; b < copy.length - 2; b++) {
-                double slope1 = copy[a].slopeTo(copy[b]);
-
-                for (int c = b + 1; c < copy.length - 1; c++) {
-                    double slope2 = copy[a].slopeTo(copy[c]);
-
-                    if (slope1 == slope2) {
-                        for (int d = c + 1; d < copy.length; d++) {
-                            double slope3 = copy[a].slopeTo(copy[d]);
-
-                            if (slope1 == slope3) {
-                                lines.add(new LineSegment(copy[a], copy[d]));
-                            }
-                        }
+        for (int a = 0; a < n; a++) {
+            for (int b = a + minPoints - 1; b < n; b++) {
+                int count = 2;
+                for (int c = 0; c < n; c++) {
+                    if (c == a || c == b || store.orientation(a, b, c) != 0)
+                        continue;
+                    if (c < a || c > b) {
+                        count = 0;
+                        break;
                     }
+                    count++;
                 }
+                if (count >= minPoints)
+                    lines.segment(a, b);
             }
         }
     }
@@ -89,19 +119,12 @@ public class BruteCollinearPoints {
      * @return an array of the LineSegments in {@code lines}
      */
     public LineSegment[] segments() {
-        return lines.toArray(new LineSegment[lines.size()]);
+        return lines.toLineSegments(store);
     }
 
     public static void main(String[] args) {
         if (args.length != 0) {
-            In in = new In(args[0]);
-            int n = in.readInt();
-            Point[] points = new Point[n];
-            for (int i = 0; i < n; i++) {
-                int x = in.readInt();
-                int y = in.readInt();
-                points[i] = new Point(x, y);
-            }
+            Point[] points = PointFileReader.readPoints(args[0]);
 
             StdDraw.enableDoubleBuffering();
             StdDraw.setXscale(0, 32768);
@@ -0,0 +1,475 @@
+/* *****************************************************************************
+ *  Name: Willy Chang
+ *  Date: 10/18/2026
+ *  Description: CollinearBatch
+ **************************************************************************** */
+
+import edu.princeton.cs.algs4.StdOut;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+
+public class CollinearBatch {
+    // Extension appended to the name of every input for its segment file.
+    private static final String OUTPUT_EXTENSION = ".segments";
+
+    // Name of the timing summary written next to the segment files.
+    private static final String SUMMARY = "summary.tsv";
+
+    private final int cpuThreads;
+
+    // Number of files read, processed or written at the same time, which
+    // bounds the points held in memory.
+    private final int inFlight;
+
+    // Engines of the CPU pool threads, by SortingCollinearEngine.Mode, so
+    // that their scratch arrays are reused from one file to the next.
+    private final ThreadLocal<SortingCollinearEngine[]> engines;
+
+    /**
+     * Class for the outcome of one input file.
+     */
+    public static final class Result {
+        private final Path file;
+        private final int points;
+        private final int segments;
+        private final long readNanos;
+        private final long findNanos;
+        private final long writeNanos;
+        private final String error;
+
+        /**
+         * Constructor that takes in the measurements of a file.
+         *
+         * @param file the input file
+         * @param points number of points, or -1 if it was not read
+         * @param segments number of segments, or -1 if they were not found
+         * @param readNanos time spent reading the file
+         * @param findNanos time spent finding the segments
+         * @param writeNanos time spent writing the segments
+         * @param error why the file failed, or null
+         */
+        private Result(Path file, int points, int segments, long readNanos, long findNanos,
+                       long writeNanos, String error) {
+            this.file = file;
+            this.points = points;
+            this.segments = segments;
+            this.readNanos = readNanos;
+            this.findNanos = findNanos;
+            this.writeNanos = writeNanos;
+            this.error = error;
+        }
+
+        /**
+         * Returns the input file.
+         *
+         * @return the path of the file
+         */
+        public Path file() {
+            return file;
+        }
+
+        /**
+         * Returns the number of points of the file.
+         *
+         * @return the number of points, or -1 if the file was not read
+         */
+        public int points() {
+            return points;
+        }
+
+        /**
+         * Returns the number of segments found in the file.
+         *
+         * @return the number of segments, or -1 if they were not found
+         */
+        public int segments() {
+            return segments;
+        }
+
+        /**
+         * Returns the time spent reading the file.
+         *
+         * @return the time in nanoseconds
+         */
+        public long readNanos() {
+            return readNanos;
+        }
+
+        /**
+         * Returns the time spent finding the segments.
+         *
+         * @return the time in nanoseconds
+         */
+        public long findNanos() {
+            return findNanos;
+        }
+
+        /**
+         * Returns the time spent writing the segments.
+         *
+         * @return the time in nanoseconds
+         */
+        public long writeNanos() {
+            return writeNanos;
+        }
+
+        /**
+         * Returns why the file failed.
+         *
+         * @return the message of the failure, or null if the file succeeded
+         */
+        public String error() {
+            return error;
+        }
+    }
+
+    /**
+     * Constructor for a runner that uses one engine thread per processor and
+     * reports the segments of 4+ points.
+     */
+    public CollinearBatch() {
+        this(Runtime.getRuntime().availableProcessors(), 4);
+    }
+
+    /**
+     * Constructor that takes in the number of engine threads and the
+     * threshold.
+     *
+     * @param cpuThreads number of threads that run the engine
+     * @param minPoints smallest number of points of a reported segment, at
+     * least 2
+     */
+    public CollinearBatch(int cpuThreads, int minPoints) {
+        if (cpuThreads < 1)
+            throw new IllegalArgumentException("Threads must be positive.");
+        if (minPoints < 2)
+            throw new IllegalArgumentException("A segment needs at least 2 points.");
+        this.cpuThreads = cpuThreads;
+        this.inFlight = 4 * cpuThreads;
+        this.engines = ThreadLocal.withInitial(() -> {
+            SortingCollinearEngine.Mode[] modes = SortingCollinearEngine.Mode.values();
+            SortingCollinearEngine[] byMode = new SortingCollinearEngine[modes.length];
+            for (SortingCollinearEngine.Mode mode : modes)
+                byMode[mode.ordinal()] = new SortingCollinearEngine(mode, minPoints, null);
+            return byMode;
+        });
+    }
+
+    /**
+     * Returns the point files named by a directory, which stands for the
+     * .txt files in it, or by a glob over the file names of a directory,
+     * such as "data/input*.txt". The files are sorted by name.
+     *
+     * @param pattern a directory or a glob
+     * @return the matching files
+     * @throws UncheckedIOException if the directory cannot be listed
+     */
+    public static List<Path> files(String pattern) {
+        Path directory;
+        String glob;
+        if (Files.isDirectory(Paths.get(pattern))) {
+            directory = Paths.get(pattern);
+            glob = "*.txt";
+        }
+        else {
+            int slash = Math.max(pattern.lastIndexOf('/'), pattern.lastIndexOf(File.separatorChar));
+            directory = Paths.get(slash < 0 ? "." : pattern.substring(0, slash + 1));
+            glob = pattern.substring(slash + 1);
+        }
+
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, glob)) {
+            for (Path file : stream) {
+                if (Files.isRegularFile(file))
+                    files.add(file);
+            }
+        }
+        catch (IOException ioException) {
+            throw new UncheckedIOException("Could not list " + directory + ".", ioException);
+        }
+        Collections.sort(files);
+        return files;
+    }
+
+    /**
+     * Finds the segments of every file in one JVM and writes them, one
+     * LineSegment per line, to a file in the output directory named after
+     * it with ".segments" appended, e.g. "input8.txt.segments", so that
+     * inputs that differ only in their extension get their own files. A
+     * tab-separated timing summary is written next to them. Every file is
+     * read and written on its own virtual thread where the JVM has them
+     * (Java 21 and later), or on a pool of platform threads otherwise, and
+     * hands its points to a fixed pool of {@code cpuThreads} threads that
+     * run SortingCollinearEngine. At most {@code 4 * cpuThreads} files are
+     * held in memory at a time. A file that cannot be read or processed is
+     * recorded in the summary and does not stop the others.
+     *
+     * @param files point files to process
+     * @param outputDirectory directory for the segment files, created if
+     * needed
+     * @return the outcome of every file, in the order of {@code files}
+     * @throws IllegalArgumentException if two files have the same name, as
+     * they would write the same segment file
+     * @throws UncheckedIOException if the output directory or the summary
+     * cannot be written
+     */
+    public List<Result> run(List<Path> files, Path outputDirectory) {
+        if (files == null || outputDirectory == null)
+            throw new IllegalArgumentException("No files or output directory given.");
+        Set<String> names = new HashSet<>();
+        for (Path file : files) {
+            if (!names.add(outputName(file)))
+                throw new IllegalArgumentException(
+                        "Duplicate file name " + file.getFileName() + ".");
+        }
+        try {
+            Files.createDirectories(outputDirectory);
+        }
+        catch (IOException ioException) {
+            throw new UncheckedIOException("Could not create " + outputDirectory + ".",
+                                           ioException);
+        }
+
+        ExecutorService io = ioExecutor(inFlight);
+        ExecutorService cpu = Executors.newFixedThreadPool(cpuThreads);
+        Semaphore permits = new Semaphore(inFlight);
+        List<Future<Result>> futures = new ArrayList<>(files.size());
+        try {
+            for (Path file : files)
+                futures.add(io.submit(() -> process(file, outputDirectory, cpu, permits)));
+
+            List<Result> results = new ArrayList<>(files.size());
+            for (Future<Result> future : futures)
+                results.add(future.get());
+            writeSummary(results, outputDirectory.resolve(SUMMARY));
+            return results;
+        }
+        catch (InterruptedException interruptedException) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted.", interruptedException);
+        }
+        catch (ExecutionException executionException) {
+            throw new IllegalStateException("A file failed unexpectedly.",
+                                            executionException.getCause());
+        }
+        finally {
+            io.shutdownNow();
+            cpu.shutdownNow();
+        }
+    }
+
+    /**
+     * Reads one file, runs the engine on it in the CPU pool and writes its
+     * segments.
+     *
+     * @param file the input file
+     * @param outputDirectory directory for the segment file
+     * @param cpu pool that runs the engine
+     * @param permits limit on the files held in memory
+     * @return the outcome of the file
+     * @throws InterruptedException if the runner is shut down
+     */
+    private Result process(Path file, Path outputDirectory, ExecutorService cpu,
+                           Semaphore permits) throws InterruptedException {
+        int points = -1, segments = -1;
+        long readNanos = 0, findNanos = 0, writeNanos = 0;
+        permits.acquire();
+        try {
+            long start = System.nanoTime();
+            PointStore store = PointFileReader.readStore(file.toString());
+            points = store.size();
+            readNanos = System.nanoTime() - start;
+
+            long[] engineNanos = new long[1];
+            Future<SegmentBuffer> found = cpu.submit(() -> {
+                long began = System.nanoTime();
+                SegmentBuffer lines = new SegmentBuffer();
+                SortingCollinearEngine.Mode mode = store.fitsDirectionKeys()
+                                                   ? SortingCollinearEngine.Mode.SLOPE_KEYS
+                                                   : SortingCollinearEngine.Mode.COMPARATOR;
+                engines.get()[mode.ordinal()].find(store, lines);
+                engineNanos[0] = System.nanoTime() - began;
+                return lines;
+            });
+            SegmentBuffer lines = found.get();
+            segments = lines.size();
+            findNanos = engineNanos[0];
+
+            start = System.nanoTime();
+            Path output = outputDirectory.resolve(outputName(file));
+            try (BufferedWriter writer = Files.newBufferedWriter(output)) {
+                for (LineSegment segment : lines.toLineSegments(store)) {
+                    writer.write(segment.toString());
+                    writer.newLine();
+                }
+            }
+            writeNanos = System.nanoTime() - start;
+            return new Result(file, points, segments, readNanos, findNanos, writeNanos, null);
+        }
+        catch (IOException | RuntimeException exception) {
+            return new Result(file, points, segments, readNanos, findNanos, writeNanos,
+                              String.valueOf(exception.getMessage()));
+        }
+        catch (ExecutionException executionException) {
+            return new Result(file, points, segments, readNanos, findNanos, writeNanos,
+                              String.valueOf(executionException.getCause().getMessage()));
+        }
+        finally {
+            permits.release();
+        }
+    }
+
+    /**
+     * Returns the name of the segment file of an input file.
+     *
+     * @param file the input file
+     * @return its name with ".segments" appended
+     */
+    private static String outputName(Path file) {
+        return file.getFileName() + OUTPUT_EXTENSION;
+    }
+
+    /**
+     * Returns an executor that runs every task on a new virtual thread, or a
+     * fixed pool of platform threads on JVMs without virtual threads. The
+     * virtual thread executor is looked up by reflection so that this class
+     * still compiles and runs on Java 17.
+     *
+     * @param platformThreads size of the fallback pool
+     * @return the executor
+     */
+    static ExecutorService ioExecutor(int platformThreads) {
+        try {
+            return (ExecutorService) Executors.class
+                    .getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        }
+        catch (ReflectiveOperationException reflectiveOperationException) {
+            return Executors.newFixedThreadPool(platformThreads);
+        }
+    }
+
+    /**
+     * Writes one line per file with its points, segments and times in
+     * milliseconds, or its error.
+     *
+     * @param results outcomes of the files
+     * @param path path of the summary
+     * @throws UncheckedIOException if the summary cannot be written
+     */
+    private static void writeSummary(List<Result> results, Path path) {
+        try (PrintWriter writer = new PrintWriter(Files.newBufferedWriter(path))) {
+            writer.println("file\tpoints\tsegments\tread ms\tfind ms\twrite ms\terror");
+            for (Result result : results) {
+                writer.printf("%s\t%d\t%d\t%.3f\t%.3f\t%.3f\t%s%n", result.file,
+                              result.points, result.segments, result.readNanos / 1e6,
+                              result.findNanos / 1e6, result.writeNanos / 1e6,
+                              result.error == null ? "" : result.error);
+            }
+        }
+        catch (IOException ioException) {
+            throw new UncheckedIOException("Could not write " + path + ".", ioException);
+        }
+    }
+
+    /**
+     * Prints the totals of a run.
+     *
+     * @param results outcomes of the files
+     * @param wallNanos elapsed time of the run
+     */
+    private static void printTotals(List<Result> results, long wallNanos) {
+        long points = 0, segments = 0, read = 0, find = 0, write = 0;
+        int failed = 0;
+        for (Result result : results) {
+            if (result.error != null) {
+                failed++;
+                StdOut.println(result.file + ": " + result.error);
+                continue;
+            }
+            points += result.points;
+            segments += result.segments;
+            read += result.readNanos;
+            find += result.findNanos;
+            write += result.writeNanos;
+        }
+        StdOut.printf("%d files (%d failed), %d points, %d segments%n", results.size(), failed,
+                      points, segments);
+        StdOut.printf("read %.1f ms, find %.1f ms, write %.1f ms (summed over threads)%n",
+                      read / 1e6, find / 1e6, write / 1e6);
+        StdOut.printf("wall %.1f ms, %.1f files/s%n", wallNanos / 1e6,
+                      results.size() / (wallNanos / 1e9));
+    }
+
+    public static void main(String[] args) throws IOException {
+        /* Process many files in one JVM: CollinearBatch <directory or glob>
+         * <output directory> [engine threads] */
+        if (args.length >= 2) {
+            CollinearBatch batch = args.length > 2
+                                   ? new CollinearBatch(Integer.parseInt(args[2]), 4)
+                                   : new CollinearBatch();
+            List<Path> files = files(args[0]);
+            long start = System.nanoTime();
+            List<Result> results = batch.run(files, Paths.get(args[1]));
+            printTotals(results, System.nanoTime() - start);
+            return;
+        }
+
+        /* Compare the segment files of the bundled inputs with
+         * FastCollinearPoints */
+        Path output = Files.createTempDirectory("collinear");
+        List<Path> files = files("input*.txt");
+        long start = System.nanoTime();
+        List<Result> results = new CollinearBatch().run(files, output);
+        long wall = System.nanoTime() - start;
+        for (Result result : results) {
+            StdOut.println(result.file);
+            List<String> expected = new ArrayList<>();
+            for (LineSegment segment : new FastCollinearPoints(
+                    PointFileReader.readPoints(result.file.toString())).segments())
+                expected.add(segment.toString());
+            Path segmentFile = output.resolve(outputName(result.file));
+            List<String> found = Files.readAllLines(segmentFile);
+            StdOut.println(found.size() + " of " + expected.size() + " segments"
+                                   + (found.equals(expected) ? " PASSED!" : " FAILED!"));
+            StdOut.println("---");
+            Files.delete(segmentFile);
+        }
+        printTotals(results, wall);
+        Files.delete(output.resolve(SUMMARY));
+        Files.delete(output);
+        StdOut.println(results.size() + " of " + files.size() + " files processed"
+                               + (results.size() == files.size() ? " PASSED!" : " FAILED!"));
+
+        /* Check that two files with the same name are rejected instead of
+         * writing the same segment file */
+        Path copy = Files.createTempDirectory("collinear").resolve("input8.txt");
+        Files.copy(Paths.get("input8.txt"), copy);
+        try {
+            new CollinearBatch().run(List.of(Paths.get("input8.txt"), copy), copy.getParent());
+            StdOut.println("Same names accepted. FAILED!");
+        }
+        catch (IllegalArgumentException illegalArgumentException) {
+            StdOut.println("Same names rejected. PASSED!");
+        }
+        Files.delete(copy);
+        Files.delete(copy.getParent());
+    }
+}
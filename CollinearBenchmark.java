@@ -0,0 +1,406 @@
+/* *****************************************************************************
+ *  Name: Willy Chang
+ *  Date: 10/18/2026
+ *  Description: CollinearBenchmark
+ **************************************************************************** */
+
+import edu.princeton.cs.algs4.StdOut;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.LongSupplier;
+import java.util.function.ToLongFunction;
+
+public final class CollinearBenchmark {
+    // Bundled inputs measured when no inputs are given.
+    private static final String[] DATASETS = {
+            "input8.txt", "input40.txt", "input48.txt", "input400.txt", "input1000.txt",
+            "input2000.txt", "input4000.txt", "input8000.txt", "mystery10089.txt",
+            "rs1423.txt", "kw1260.txt", "horizontal100.txt", "vertical100.txt", "grid6x6.txt"
+    };
+
+    // Number of points of the point arrays used by the microbenchmarks.
+    private static final int MICRO_POINTS = 1024;
+
+    // Results are folded into this field so the JIT cannot drop the work.
+    private static volatile long blackhole;
+
+    // Measured subjects by name, with the largest input each one is run on.
+    private static final Map<String, Subject> SUBJECTS = new LinkedHashMap<>();
+
+    static {
+        SUBJECTS.put("brute", new Subject(
+                400, input -> new BruteCollinearPoints(input.points).numberOfSegments()));
+        SUBJECTS.put("fast", new Subject(
+                Integer.MAX_VALUE, input -> new FastCollinearPoints(input.points).numberOfSegments()));
+        SUBJECTS.put("sorting", new Subject(
+                Integer.MAX_VALUE, input -> engine(new SortingCollinearEngine(), input.store)));
+        SUBJECTS.put("parallel", new Subject(
+                Integer.MAX_VALUE, input -> engine(new ParallelCollinearEngine(), input.store)));
+        SUBJECTS.put("hash", new Subject(
+                Integer.MAX_VALUE, input -> engine(new HashCollinearEngine(), input.store)));
+        SUBJECTS.put("sweep", new Subject(
+                Integer.MAX_VALUE, input -> engine(new SweepCollinearEngine(), input.store)));
+        SUBJECTS.put("offheap", new Subject(Integer.MAX_VALUE, input -> {
+            try (OffHeapCollinearEngine engine = new OffHeapCollinearEngine()) {
+                return engine(engine, input.store);
+            }
+        }));
+    }
+
+    /**
+     * Private class for a measured subject: an operation on an input and the
+     * largest input it is run on, which keeps the O(n^4) brute force off the
+     * large inputs.
+     */
+    private static class Subject {
+        private final int maxPoints;
+        private final ToLongFunction<Input> operation;
+
+        /**
+         * Constructor that takes in the size limit and the operation.
+         *
+         * @param maxPoints largest number of points to run on
+         * @param operation the measured operation, returning a value to
+         * consume
+         */
+        Subject(int maxPoints, ToLongFunction<Input> operation) {
+            this.maxPoints = maxPoints;
+            this.operation = operation;
+        }
+    }
+
+    /**
+     * Private class for a benchmark input, as Points and as a store.
+     */
+    private static class Input {
+        private final String name;
+        private final Point[] points;
+        private final PointStore store;
+
+        /**
+         * Constructor that takes in the name and the points of the input.
+         *
+         * @param name name of the input
+         * @param points the points of the input
+         */
+        Input(String name, Point[] points) {
+            this.name = name;
+            this.points = points;
+            this.store = PointStore.of(points);
+        }
+    }
+
+    /**
+     * Private class for the measurements of one operation.
+     */
+    private static class Result {
+        private final long operations;
+        private final double nanosPerOperation;
+        private final double bytesPerOperation;
+        private final long collections;
+        private final long collectionMillis;
+
+        /**
+         * Constructor that takes in the measurements.
+         *
+         * @param operations number of measured operations
+         * @param nanosPerOperation average time per operation
+         * @param bytesPerOperation average bytes allocated by the calling
+         * thread per operation, or -1 if not supported
+         * @param collections number of garbage collections while measuring
+         * @param collectionMillis time spent in garbage collection
+         */
+        Result(long operations, double nanosPerOperation, double bytesPerOperation,
+               long collections, long collectionMillis) {
+            this.operations = operations;
+            this.nanosPerOperation = nanosPerOperation;
+            this.bytesPerOperation = bytesPerOperation;
+            this.collections = collections;
+            this.collectionMillis = collectionMillis;
+        }
+    }
+
+    /**
+     * Private constructor, this class only has static methods.
+     */
+    private CollinearBenchmark() {
+    }
+
+    /**
+     * Runs an engine on a store and counts the segments it finds.
+     *
+     * @param engine the engine to run
+     * @param store the points
+     * @return the number of segments
+     */
+    private static long engine(CollinearEngine engine, PointStore store) {
+        SegmentBuffer buffer = new SegmentBuffer();
+        engine.find(store, buffer);
+        return buffer.size();
+    }
+
+    /**
+     * Measures an operation. Runs it for {@code millis} to warm up, then
+     * repeats it for at least {@code millis} and at least three times while
+     * recording the time, the bytes allocated by the calling thread and the
+     * garbage collections.
+     *
+     * @param operation the operation, returning a value to consume
+     * @param millis warm-up and measurement time in milliseconds
+     * @return the measurements
+     */
+    private static Result measure(LongSupplier operation, long millis) {
+        long budget = millis * 1000000L;
+        long start = System.nanoTime();
+        long sink = 0;
+        do {
+            sink += operation.getAsLong();
+        } while (System.nanoTime() - start < budget);
+
+        long collections = -collectionCount();
+        long collectionMillis = -collectionMillis();
+        long bytes = -allocatedBytes();
+        long operations = 0;
+        start = System.nanoTime();
+        long elapsed;
+        do {
+            sink += operation.getAsLong();
+            operations++;
+            elapsed = System.nanoTime() - start;
+        } while (elapsed < budget || operations < 3);
+        bytes += allocatedBytes();
+        collections += collectionCount();
+        collectionMillis += collectionMillis();
+        blackhole += sink;
+
+        double bytesPerOperation = allocatedBytes() < 0 ? -1 : (double) bytes / operations;
+        return new Result(operations, (double) elapsed / operations, bytesPerOperation,
+                          collections, collectionMillis);
+    }
+
+    /**
+     * Returns the number of bytes the calling thread has allocated, if the
+     * JVM supports measuring it.
+     *
+     * @return the allocated bytes, or -1
+     */
+    private static long allocatedBytes() {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        if (threads instanceof com.sun.management.ThreadMXBean) {
+            return ((com.sun.management.ThreadMXBean) threads)
+                    .getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the number of garbage collections so far.
+     *
+     * @return the collection count over all collectors
+     */
+    private static long collectionCount() {
+        long count = 0;
+        for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans())
+            count += Math.max(0, collector.getCollectionCount());
+        return count;
+    }
+
+    /**
+     * Returns the time spent in garbage collection so far.
+     *
+     * @return the collection time in milliseconds over all collectors
+     */
+    private static long collectionMillis() {
+        long time = 0;
+        for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans())
+            time += Math.max(0, collector.getCollectionTime());
+        return time;
+    }
+
+    /**
+     * Generates n distinct random points with coordinates in [0, 32768).
+     * Every tenth group of points is placed on a random line, so the inputs
+     * have segments of 4 to 8 points to find.
+     *
+     * @param n number of points
+     * @param seed seed of the random generator
+     * @return the points
+     */
+    static Point[] synthetic(int n, long seed) {
+        if (n > 32768L * 32768L / 2)
+            throw new IllegalArgumentException("Too many points for the coordinate range.");
+        Random random = new Random(seed);
+        HashSet<Long> seen = new HashSet<>();
+        Point[] points = new Point[n];
+        int i = 0;
+        while (i < n) {
+            if (i % 80 == 0 && n - i >= 8) {
+                int length = 4 + random.nextInt(5);
+                int dx = random.nextInt(65) - 32;
+                int dy = 1 + random.nextInt(32);
+                int x = random.nextInt(32768);
+                int y = random.nextInt(32768 - length * dy);
+                for (int k = 0; k < length; k++) {
+                    int px = x + k * dx;
+                    int py = y + k * dy;
+                    if (px >= 0 && px < 32768 && seen.add(PointStore.pack(px, py)))
+                        points[i++] = new Point(px, py);
+                }
+            }
+            else {
+                int x = random.nextInt(32768);
+                int y = random.nextInt(32768);
+                if (seen.add(PointStore.pack(x, y)))
+                    points[i++] = new Point(x, y);
+            }
+        }
+        return points;
+    }
+
+    /**
+     * Measures every subject on an input and prints one line per subject.
+     *
+     * @param input the input
+     * @param names names of the subjects to run
+     * @param millis warm-up and measurement time in milliseconds
+     */
+    private static void benchmark(Input input, List<String> names, long millis) {
+        for (String name : names) {
+            Subject subject = SUBJECTS.get(name);
+            if (input.points.length > subject.maxPoints) {
+                StdOut.printf("%-20s %-10s %10s%n", input.name, name, "skipped");
+                continue;
+            }
+            Result result = measure(() -> subject.operation.applyAsLong(input), millis);
+            print(input.name, name, result, 1);
+        }
+    }
+
+    /**
+     * Measures slopeTo, compareTo and slopeOrder on random points. Every
+     * operation makes MICRO_POINTS^2 calls, and the results are per call.
+     *
+     * @param millis warm-up and measurement time in milliseconds
+     */
+    private static void micro(long millis) {
+        Point[] points = synthetic(MICRO_POINTS, 1);
+        long calls = (long) MICRO_POINTS * MICRO_POINTS;
+
+        print("micro", "slopeTo", measure(() -> {
+            double sum = 0;
+            for (Point p : points) {
+                for (Point q : points)
+                    sum += p.slopeTo(q);
+            }
+            return Double.doubleToRawLongBits(sum);
+        }, millis), calls);
+
+        print("micro", "compareTo", measure(() -> {
+            long sum = 0;
+            for (Point p : points) {
+                for (Point q : points)
+                    sum += p.compareTo(q);
+            }
+            return sum;
+        }, millis), calls);
+
+        List<Comparator<Point>> orders = new ArrayList<>();
+        for (Point p : points)
+            orders.add(p.slopeOrder());
+        print("micro", "slopeOrder", measure(() -> {
+            long sum = 0;
+            for (Comparator<Point> order : orders) {
+                Point previous = points[MICRO_POINTS - 1];
+                for (Point q : points) {
+                    sum += order.compare(previous, q);
+                    previous = q;
+                }
+            }
+            return sum;
+        }, millis), calls);
+    }
+
+    /**
+     * Prints one result line.
+     *
+     * @param input name of the input
+     * @param subject name of the subject
+     * @param result the measurements
+     * @param calls number of calls per operation
+     */
+    private static void print(String input, String subject, Result result, long calls) {
+        double nanos = result.nanosPerOperation / calls;
+        String time = nanos >= 1e6 ? String.format("%10.3f ms", nanos / 1e6)
+                                   : String.format("%10.2f ns", nanos);
+        String bytes = result.bytesPerOperation < 0 ? "n/a"
+                                                    : String.format("%.1f", result.bytesPerOperation / calls);
+        StdOut.printf("%-20s %-10s %s %14s B %8d ops %6d gc %6d gc-ms%n", input, subject, time,
+                      bytes, result.operations, result.collections, result.collectionMillis);
+    }
+
+    /**
+     * Runs the benchmarks. Arguments:
+     * <pre>
+     *   --time ms          warm-up and measurement time per benchmark
+     *   --subjects a,b     subjects to run (brute, fast, sorting, parallel,
+     *                      hash, sweep, offheap), all by default
+     *   --micro            only run the microbenchmarks
+     *   file.txt           a point file to measure
+     *   n                  a synthetic input of n points
+     * </pre>
+     * Without inputs the bundled datasets and the microbenchmarks are run.
+     * The allocation is measured on the calling thread only, so it does not
+     * include what the workers of the parallel engine allocate.
+     */
+    public static void main(String[] args) {
+        long millis = 1000;
+        boolean microOnly = false;
+        List<String> names = new ArrayList<>(SUBJECTS.keySet());
+        List<Input> inputs = new ArrayList<>();
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("--time")) {
+                millis = Long.parseLong(args[++i]);
+            }
+            else if (args[i].equals("--subjects")) {
+                names = new ArrayList<>(List.of(args[++i].split(",")));
+                for (String name : names) {
+                    if (!SUBJECTS.containsKey(name))
+                        throw new IllegalArgumentException("Unknown subject " + name + ".");
+                }
+            }
+            else if (args[i].equals("--micro")) {
+                microOnly = true;
+            }
+            else if (args[i].matches("\\d+")) {
+                int n = Integer.parseInt(args[i]);
+                inputs.add(new Input("synthetic" + n, synthetic(n, n)));
+            }
+            else {
+                inputs.add(new Input(args[i], PointFileReader.readPoints(args[i])));
+            }
+        }
+
+        StdOut.printf("%-20s %-10s %13s %16s %12s %9s %12s%n", "input", "subject", "time/op",
+                      "alloc/op", "ops", "gc", "gc-ms");
+        boolean defaults = inputs.isEmpty();
+        if (!microOnly) {
+            if (defaults) {
+                for (String file : DATASETS)
+                    inputs.add(new Input(file, PointFileReader.readPoints(file)));
+            }
+            for (Input input : inputs)
+                benchmark(input, names, millis);
+        }
+        if (microOnly || defaults)
+            micro(millis);
+    }
+}
@@ -0,0 +1,18 @@
+/* *****************************************************************************
+ *  Name: Willy Chang
+ *  Date: 10/18/2026
+ *  Description: CollinearEngine
+ **************************************************************************** */
+
+public interface CollinearEngine {
+    /**
+     * Finds every maximal line segment that connects 4+ points of the store,
+     * or as many points as the engine is configured for. Each segment is
+     * passed to the sink once, from its smallest to its largest point (see
+     * Points.compareTo).
+     *
+     * @param store points to process
+     * @param sink receives the segments
+     */
+    void find(PointStore store, SegmentSink sink);
+}
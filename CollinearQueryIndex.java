@@ -0,0 +1,386 @@
+/* *****************************************************************************
+ *  Name: Willy Chang
+ *  Date: 10/18/2026
+ *  Description: CollinearQueryIndex
+ **************************************************************************** */
+
+import edu.princeton.cs.algs4.StdOut;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Random;
+
+public class CollinearQueryIndex {
+    private static final LineSegment[] NO_SEGMENTS = new LineSegment[0];
+
+    // Points in ascending order, packed so that a binary search finds them
+    // (see PointStore.pack).
+    private final long[] points;
+
+    // Segments, by the line they lie on and by their direction. A maximal
+    // segment holds every point of its line, so a line has one segment.
+    private final LineSegment[] segments;
+    private final LineKey[] lines;
+    private final HashMap<LineKey, Integer> byLine = new HashMap<>();
+    private final HashMap<LineKey, int[]> byDirection = new HashMap<>();
+
+    // Distinct directions of the segments, to look up the lines through a
+    // point that is not in the index.
+    private final LineKey[] directions;
+
+    // Endpoints of the segments, packed like the points. The points of a
+    // line are in ascending order along it, so a point of the line is on
+    // the segment if it lies between them in that order.
+    private final long[] firstPoints;
+    private final long[] lastPoints;
+
+    // Segments through each point: those of point i are
+    // pointSegments[pointStart[i], pointStart[i + 1]).
+    private final int[] pointStart;
+    private final int[] pointSegments;
+
+    /**
+     * Constructor that takes in a store and the segments found on it.
+     *
+     * @param store points the segments were found on
+     * @param found segments as indices into the store
+     */
+    private CollinearQueryIndex(PointStore store, SegmentBuffer found) {
+        int n = store.size();
+        points = new long[n];
+        for (int i = 0; i < n; i++)
+            points[i] = PointStore.pack(store.x(i), store.y(i));
+
+        int m = found.size();
+        segments = new LineSegment[m];
+        lines = new LineKey[m];
+        firstPoints = new long[m];
+        lastPoints = new long[m];
+        HashMap<LineKey, Integer> directionCounts = new HashMap<>();
+        for (int s = 0; s < m; s++) {
+            int p = found.first(s), q = found.last(s);
+            segments[s] = new LineSegment(store.point(p), store.point(q));
+            lines[s] = LineKey.through(store.x(p), store.y(p), store.x(q), store.y(q));
+            firstPoints[s] = points[p];
+            lastPoints[s] = points[q];
+            byLine.put(lines[s], s);
+            directionCounts.merge(lines[s].direction(), 1, Integer::sum);
+        }
+        for (int s = m - 1; s >= 0; s--) {
+            LineKey direction = lines[s].direction();
+            int left = directionCounts.merge(direction, -1, Integer::sum);
+            byDirection.computeIfAbsent(direction, d -> new int[left + 1])[left] = s;
+        }
+        directions = byDirection.keySet().toArray(new LineKey[0]);
+
+        // Count the segments through every point, then fill them in.
+        pointStart = new int[n + 1];
+        for (int s = 0; s < m; s++)
+            visit(store, found.first(s), found.last(s), s, null);
+        for (int i = 0; i < n; i++)
+            pointStart[i + 1] += pointStart[i];
+        pointSegments = new int[pointStart[n]];
+        int[] next = Arrays.copyOf(pointStart, n);
+        for (int s = 0; s < m; s++)
+            visit(store, found.first(s), found.last(s), s, next);
+    }
+
+    /**
+     * Builds the index from the segments that an engine found on a store.
+     *
+     * @param store points the segments were found on
+     * @param found segments as indices into the store
+     * @return the index
+     */
+    public static CollinearQueryIndex of(PointStore store, SegmentBuffer found) {
+        if (store == null || found == null)
+            throw new IllegalArgumentException("No points or segments given.");
+        return new CollinearQueryIndex(store, found);
+    }
+
+    /**
+     * Finds the maximal segments of 4+ points of an array of Points, like
+     * FastCollinearPoints, and builds the index from them.
+     *
+     * @param points array of Points
+     * @return the index
+     */
+    public static CollinearQueryIndex of(Point[] points) {
+        if ((points == null) || (points.length == 0))
+            throw new IllegalArgumentException("No points given.");
+        PointStore store = PointStore.of(points);
+        SortingCollinearEngine.Mode mode = store.fitsDirectionKeys()
+                                           ? SortingCollinearEngine.Mode.SLOPE_KEYS
+                                           : SortingCollinearEngine.Mode.COMPARATOR;
+        SegmentBuffer found = new SegmentBuffer();
+        new SortingCollinearEngine(mode, null).find(store, found);
+        return new CollinearQueryIndex(store, found);
+    }
+
+    /**
+     * Visits the points of a segment. If {@code next} is null, counts the
+     * segment for each of its points in {@code pointStart}, otherwise stores
+     * it for each of them. The points are found either by stepping along
+     * the lattice points of the segment or by testing the points between its
+     * endpoints in ascending order, whichever takes fewer steps: points on a
+     * line are in ascending order along it, so they all lie between the
+     * endpoints.
+     *
+     * @param store points the segments were found on
+     * @param p index of the first endpoint
+     * @param q index of the last endpoint
+     * @param s the segment
+     * @param next next free position for each point, or null to count
+     */
+    private void visit(PointStore store, int p, int q, int s, int[] next) {
+        long dx = (long) store.x(q) - store.x(p);
+        long dy = (long) store.y(q) - store.y(p);
+        long steps = gcd(Math.abs(dx), Math.abs(dy));
+        if (steps < q - p) {
+            for (long t = 0; t <= steps; t++) {
+                int i = indexOf((int) (store.x(p) + t * (dx / steps)),
+                                (int) (store.y(p) + t * (dy / steps)));
+                if (i >= 0)
+                    add(i, s, next);
+            }
+        }
+        else {
+            for (int i = p; i <= q; i++) {
+                if (lines[s].contains(store.x(i), store.y(i)))
+                    add(i, s, next);
+            }
+        }
+    }
+
+    /**
+     * Counts or stores one segment of a point.
+     *
+     * @param i index of the point
+     * @param s the segment
+     * @param next next free position for each point, or null to count
+     */
+    private void add(int i, int s, int[] next) {
+        if (next == null)
+            pointStart[i + 1]++;
+        else
+            pointSegments[next[i]++] = s;
+    }
+
+    /**
+     * Returns the index of a point in ascending order, by binary search.
+     *
+     * @param x x-coordinate of the point
+     * @param y y-coordinate of the point
+     * @return the index of the point, or -1 if it is not in the index
+     */
+    private int indexOf(int x, int y) {
+        int i = Arrays.binarySearch(points, PointStore.pack(x, y));
+        return i >= 0 ? i : -1;
+    }
+
+    /**
+     * Return the number of points in the index.
+     *
+     * @return the number of points
+     */
+    public int size() {
+        return points.length;
+    }
+
+    /**
+     * Return the number of line segments that contain collinear points.
+     *
+     * @return the number of segments
+     */
+    public int numberOfSegments() {
+        return segments.length;
+    }
+
+    /**
+     * Return an array of all segments.
+     *
+     * @return an array of the LineSegments
+     */
+    public LineSegment[] segments() {
+        return segments.clone();
+    }
+
+    /**
+     * Returns the segments that pass through a point, in O(log n) time plus
+     * the number of segments.
+     *
+     * @param p the point
+     * @return the segments through {@code p}, empty if there are none or
+     * {@code p} is not in the index
+     */
+    public LineSegment[] segmentsThrough(Point p) {
+        if (p == null)
+            throw new IllegalArgumentException("Point is null.");
+        int i = indexOf(p.x(), p.y());
+        if (i < 0)
+            return NO_SEGMENTS;
+        LineSegment[] through = new LineSegment[pointStart[i + 1] - pointStart[i]];
+        for (int k = 0; k < through.length; k++)
+            through[k] = segments[pointSegments[pointStart[i] + k]];
+        return through;
+    }
+
+    /**
+     * Returns whether a point lies on any segment, between or at its
+     * endpoints. A point of the index is looked up in O(log n) time. For any
+     * other point, the line through it in each direction of the segments is
+     * looked up by its key, in expected O(d) time for d distinct
+     * directions, and the segment on it, if any, is checked to hold the
+     * point between its endpoints.
+     *
+     * @param q the point
+     * @return true if {@code q} lies on a segment
+     */
+    public boolean isOnSegment(Point q) {
+        if (q == null)
+            throw new IllegalArgumentException("Point is null.");
+        int i = indexOf(q.x(), q.y());
+        if (i >= 0)
+            return pointStart[i + 1] > pointStart[i];
+
+        long packed = PointStore.pack(q.x(), q.y());
+        for (LineKey direction : directions) {
+            LineKey line = direction.parallelThrough(q.x(), q.y());
+            Integer s = line == null ? null : byLine.get(line);
+            if (s != null && firstPoints[s] < packed && packed < lastPoints[s])
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * Returns the segment on the line through two points, in expected O(1)
+     * time.
+     *
+     * @param p a point of the line
+     * @param q another point of the line
+     * @return the segment on that line, or null if there is none
+     * @throws IllegalArgumentException if a point is null, if the points
+     * are equal, as they do not give a line, or if they are too far apart
+     * for a line key (see LineKey.through)
+     */
+    public LineSegment segmentOn(Point p, Point q) {
+        if (p == null || q == null)
+            throw new IllegalArgumentException("Point is null.");
+        Integer s = byLine.get(LineKey.through(p.x(), p.y(), q.x(), q.y()));
+        return s == null ? null : segments[s];
+    }
+
+    /**
+     * Returns the segments with a direction, in expected O(1) time plus the
+     * number of segments. Directions that are multiples of each other, such
+     * as (1, 2), (2, 4) and (-1, -2), are the same.
+     *
+     * @param dx x-component of the direction
+     * @param dy y-component of the direction
+     * @return the segments parallel to (dx, dy), in the order they were found
+     * @throws IllegalArgumentException if both components are zero
+     */
+    public LineSegment[] segmentsWithDirection(int dx, int dy) {
+        int[] ids = byDirection.get(LineKey.through(0, 0, dx, dy));
+        if (ids == null)
+            return NO_SEGMENTS;
+        LineSegment[] parallel = new LineSegment[ids.length];
+        for (int k = 0; k < ids.length; k++)
+            parallel[k] = segments[ids[k]];
+        return parallel;
+    }
+
+    /**
+     * Euclid's gcd of two non-negative numbers.
+     *
+     * @param p first number
+     * @param q second number
+     * @return the greatest common divisor of p and q
+     */
+    private static long gcd(long p, long q) {
+        while (q != 0) {
+            long r = p % q;
+            p = q;
+            q = r;
+        }
+        return p;
+    }
+
+    public static void main(String[] args) {
+        /* Check every query against a scan over all segments */
+        String[] testFiles = {
+                "input8.txt", "equidistant.txt", "input40.txt", "input48.txt",
+                "horizontal5.txt", "vertical5.txt", "random23.txt", "grid6x6.txt"
+        };
+        for (int i = 0; i < testFiles.length; i++) {
+            StdOut.println(testFiles[i]);
+            Point[] points = PointFileReader.readPoints(testFiles[i]);
+            CollinearQueryIndex index = of(points);
+            LineSegment[] all = index.segments();
+
+            // Every segment is found from the two ends of its points, and by
+            // its direction, and every point is on as many segments as the
+            // lines of the segments it lies on.
+            boolean passed = true;
+            int[] through = new int[points.length];
+            for (int s = 0; s < all.length; s++) {
+                LineKey line = index.lines[s];
+                Point first = null, last = null;
+                for (int j = 0; j < points.length; j++) {
+                    if (line.contains(points[j].x(), points[j].y())) {
+                        through[j]++;
+                        if (first == null || points[j].compareTo(first) < 0)
+                            first = points[j];
+                        if (last == null || points[j].compareTo(last) > 0)
+                            last = points[j];
+                    }
+                }
+                passed &= index.segmentOn(first, last) == all[s];
+
+                // Every lattice point between the endpoints is on the
+                // segment, whether it is one of the points or not.
+                int dx = last.x() - first.x(), dy = last.y() - first.y();
+                int steps = (int) gcd(Math.abs(dx), Math.abs(dy));
+                for (int t = 0; t <= steps; t++) {
+                    passed &= index.isOnSegment(new Point(first.x() + t * (dx / steps),
+                                                          first.y() + t * (dy / steps)));
+                }
+                passed &= Arrays.asList(index.segmentsWithDirection(
+                        (int) -line.b(), (int) line.a())).contains(all[s]);
+            }
+            try {
+                index.segmentOn(points[0], points[0]);
+                passed = false;
+            }
+            catch (IllegalArgumentException illegalArgumentException) {
+                // Two equal points do not give a line.
+            }
+
+            // Other points are only on a segment if they lie on its line,
+            // between its endpoints.
+            Random random = new Random(i);
+            for (int k = 0; k < 1000; k++) {
+                Point q = new Point(random.nextInt(32768), random.nextInt(32768));
+                boolean on = false;
+                for (int s = 0; s < all.length; s++) {
+                    LineKey line = index.lines[s];
+                    on |= line.contains(q.x(), q.y())
+                            && index.firstPoints[s] <= PointStore.pack(q.x(), q.y())
+                            && PointStore.pack(q.x(), q.y()) <= index.lastPoints[s];
+                }
+                passed &= index.isOnSegment(q) == on;
+            }
+
+            int incidences = 0;
+            for (int j = 0; j < points.length; j++) {
+                passed &= index.segmentsThrough(points[j]).length == through[j];
+                passed &= index.isOnSegment(points[j]) == (through[j] > 0);
+                incidences += through[j];
+            }
+            StdOut.println(all.length + " segments, " + incidences + " points on segments"
+                                   + (passed ? " PASSED!" : " FAILED!"));
+            StdOut.println("---");
+        }
+    }
+}
@@ -0,0 +1,288 @@
+/* *****************************************************************************
+ *  Name: Willy Chang
+ *  Date: 10/18/2026
+ *  Description: CollinearRasterizer
+ **************************************************************************** */
+
+import edu.princeton.cs.algs4.StdOut;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.stream.IntStream;
+import javax.imageio.ImageIO;
+
+public class CollinearRasterizer {
+    // Colors of the background, the points and the segments, as 0xRRGGBB.
+    private static final int BACKGROUND = 0xffffff;
+    private static final int POINT_COLOR = 0x000000;
+    private static final int SEGMENT_COLOR = 0x0000ff;
+
+    // Points are drawn as squares of 2 * POINT_RADIUS + 1 pixels.
+    private static final int POINT_RADIUS = 1;
+
+    private final int width;
+    private final int height;
+
+    // Coordinates shown at the left, right, bottom and top edges of the
+    // image, like StdDraw.setXscale and setYscale.
+    private final double xmin;
+    private final double xmax;
+    private final double ymin;
+    private final double ymax;
+
+    // Number of horizontal bands drawn in parallel.
+    private final int tiles;
+
+    /**
+     * Constructor for a 512 by 512 image of the coordinates from 0 to 32768,
+     * the scale of the main methods, drawn in one band per processor.
+     */
+    public CollinearRasterizer() {
+        this(512, 512, 0, 32768, 0, 32768, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Constructor that takes in the size of the image, the coordinates it
+     * shows and the number of bands to draw in parallel.
+     *
+     * @param width width of the image in pixels
+     * @param height height of the image in pixels
+     * @param xmin x-coordinate at the left edge
+     * @param xmax x-coordinate at the right edge
+     * @param ymin y-coordinate at the bottom edge
+     * @param ymax y-coordinate at the top edge
+     * @param tiles number of horizontal bands drawn in parallel, 1 to draw
+     * on the calling thread
+     */
+    public CollinearRasterizer(int width, int height, double xmin, double xmax, double ymin,
+                               double ymax, int tiles) {
+        if (width < 1 || height < 1)
+            throw new IllegalArgumentException("Image size must be positive.");
+        if (!(xmin < xmax) || !(ymin < ymax))
+            throw new IllegalArgumentException("Scale is empty.");
+        if (tiles < 1)
+            throw new IllegalArgumentException("Tiles must be positive.");
+        this.width = width;
+        this.height = height;
+        this.xmin = xmin;
+        this.xmax = xmax;
+        this.ymin = ymin;
+        this.ymax = ymax;
+        this.tiles = Math.min(tiles, height);
+    }
+
+    /**
+     * Draws the points of a store and the segments found on it.
+     *
+     * @param store points to draw
+     * @param lines segments as indices into the store, or null
+     * @return the image
+     */
+    public BufferedImage render(PointStore store, SegmentBuffer lines) {
+        int n = store.size();
+        int[] xs = new int[n];
+        int[] ys = new int[n];
+        for (int i = 0; i < n; i++) {
+            xs[i] = store.x(i);
+            ys[i] = store.y(i);
+        }
+        return render(xs, ys, lines == null ? new int[0] : lines.toArray());
+    }
+
+    /**
+     * Draws points and segments straight into the pixels of an image, without
+     * a display. The image is split into horizontal bands that are drawn in
+     * parallel; each band draws every point and segment clipped to its rows,
+     * so no pixel is written by two threads. Segments are drawn over the
+     * points.
+     *
+     * @param xs x-coordinates of the points
+     * @param ys y-coordinates of the points
+     * @param segments endpoint index pairs, two ints per segment (see
+     * SegmentBuffer.toArray)
+     * @return the image
+     */
+    public BufferedImage render(int[] xs, int[] ys, int[] segments) {
+        if (xs.length != ys.length)
+            throw new IllegalArgumentException("Coordinate arrays differ in length.");
+        if (segments.length % 2 != 0)
+            throw new IllegalArgumentException("Segments must be index pairs.");
+
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        int[] pixels = ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+        int rows = (height + tiles - 1) / tiles;
+        IntStream bands = IntStream.range(0, tiles);
+        if (tiles > 1)
+            bands = bands.parallel();
+        bands.forEach(tile -> {
+            int top = tile * rows;
+            int bottom = Math.min(height, top + rows);
+            drawTile(pixels, top, bottom, xs, ys, segments);
+        });
+        return image;
+    }
+
+    /**
+     * Draws the rows [top, bottom) of the image.
+     *
+     * @param pixels pixels of the image, row by row
+     * @param top first row, inclusive
+     * @param bottom last row, exclusive
+     * @param xs x-coordinates of the points
+     * @param ys y-coordinates of the points
+     * @param segments endpoint index pairs
+     */
+    private void drawTile(int[] pixels, int top, int bottom, int[] xs, int[] ys, int[] segments) {
+        for (int i = top * width; i < bottom * width; i++)
+            pixels[i] = BACKGROUND;
+
+        for (int i = 0; i < xs.length; i++) {
+            int px = (int) Math.round(column(xs[i]));
+            int py = (int) Math.round(row(ys[i]));
+            if (py + POINT_RADIUS < top || py - POINT_RADIUS >= bottom)
+                continue;
+            for (int y = Math.max(top, py - POINT_RADIUS);
+                 y <= Math.min(bottom - 1, py + POINT_RADIUS); y++) {
+                for (int x = Math.max(0, px - POINT_RADIUS);
+                     x <= Math.min(width - 1, px + POINT_RADIUS); x++)
+                    pixels[y * width + x] = POINT_COLOR;
+            }
+        }
+
+        for (int s = 0; s < segments.length; s += 2) {
+            int p = segments[s], q = segments[s + 1];
+            drawLine(pixels, top, bottom, column(xs[p]), row(ys[p]), column(xs[q]), row(ys[q]));
+        }
+    }
+
+    /**
+     * Draws a line with one pixel per step along its longer axis, only
+     * stepping over the part of the line within rows [top, bottom).
+     *
+     * @param pixels pixels of the image, row by row
+     * @param top first row, inclusive
+     * @param bottom last row, exclusive
+     * @param x0 column of the first endpoint
+     * @param y0 row of the first endpoint
+     * @param x1 column of the last endpoint
+     * @param y1 row of the last endpoint
+     */
+    private void drawLine(int[] pixels, int top, int bottom, double x0, double y0, double x1,
+                          double y1) {
+        double dx = x1 - x0, dy = y1 - y0;
+        int steps = (int) Math.ceil(Math.max(Math.abs(dx), Math.abs(dy)));
+        if (steps == 0) {
+            plot(pixels, top, bottom, x0, y0);
+            return;
+        }
+
+        // Steps whose rounded row can fall within the band.
+        int first = 0, last = steps;
+        if (dy != 0) {
+            double from = (top - 0.5 - y0) / dy * steps;
+            double to = (bottom - 0.5 - y0) / dy * steps;
+            first = (int) Math.max(0, Math.floor(Math.min(from, to)));
+            last = (int) Math.min(steps, Math.ceil(Math.max(from, to)));
+        }
+        for (int i = first; i <= last; i++)
+            plot(pixels, top, bottom, x0 + dx * i / steps, y0 + dy * i / steps);
+    }
+
+    /**
+     * Sets the pixel nearest to a point, if it is within the image and rows
+     * [top, bottom).
+     *
+     * @param pixels pixels of the image, row by row
+     * @param top first row, inclusive
+     * @param bottom last row, exclusive
+     * @param x column of the point
+     * @param y row of the point
+     */
+    private void plot(int[] pixels, int top, int bottom, double x, double y) {
+        int px = (int) Math.round(x);
+        int py = (int) Math.round(y);
+        if (px >= 0 && px < width && py >= top && py < bottom)
+            pixels[py * width + px] = SEGMENT_COLOR;
+    }
+
+    /**
+     * Returns the column of an x-coordinate.
+     *
+     * @param x the x-coordinate
+     * @return the column, not rounded
+     */
+    private double column(int x) {
+        return (x - xmin) / (xmax - xmin) * width;
+    }
+
+    /**
+     * Returns the row of a y-coordinate. Rows go down, so larger
+     * y-coordinates are higher up.
+     *
+     * @param y the y-coordinate
+     * @return the row, not rounded
+     */
+    private double row(int y) {
+        return (ymax - y) / (ymax - ymin) * height;
+    }
+
+    /**
+     * Writes an image to a PNG file.
+     *
+     * @param image the image
+     * @param path path of the file
+     * @throws UncheckedIOException if the file cannot be written
+     */
+    public static void writePng(BufferedImage image, String path) {
+        try {
+            if (!ImageIO.write(image, "png", new File(path)))
+                throw new IOException("No PNG writer.");
+        }
+        catch (IOException ioException) {
+            throw new UncheckedIOException("Could not write " + path + ".", ioException);
+        }
+    }
+
+    public static void main(String[] args) {
+        System.setProperty("java.awt.headless", "true");
+
+        /* Draw a point file and its segments: CollinearRasterizer input.txt
+         * output.png */
+        if (args.length == 2) {
+            PointStore store = PointFileReader.readStore(args[0]);
+            SegmentBuffer lines = new SegmentBuffer();
+            new SortingCollinearEngine().find(store, lines);
+            writePng(new CollinearRasterizer().render(store, lines), args[1]);
+            return;
+        }
+
+        /* Check that drawing in parallel bands gives the same pixels as
+         * drawing on one thread */
+        String[] testFiles = {
+                "input8.txt", "equidistant.txt", "input40.txt", "input48.txt",
+                "horizontal5.txt", "vertical5.txt", "random23.txt", "input6000.txt"
+        };
+        CollinearRasterizer parallel = new CollinearRasterizer(512, 512, 0, 32768, 0, 32768, 7);
+        CollinearRasterizer serial = new CollinearRasterizer(512, 512, 0, 32768, 0, 32768, 1);
+        for (int i = 0; i < testFiles.length; i++) {
+            StdOut.println(testFiles[i]);
+            PointStore store = PointFileReader.readStore(testFiles[i]);
+            SegmentBuffer lines = new SegmentBuffer();
+            new SortingCollinearEngine().find(store, lines);
+
+            int[] expected = serial.render(store, lines).getRGB(0, 0, 512, 512, null, 0, 512);
+            int[] found = parallel.render(store, lines).getRGB(0, 0, 512, 512, null, 0, 512);
+            int drawn = 0;
+            boolean passed = true;
+            for (int j = 0; j < found.length; j++) {
+                passed &= found[j] == expected[j];
+                drawn += (found[j] & 0xffffff) == BACKGROUND ? 0 : 1;
+            }
+            StdOut.println(drawn + " pixels drawn" + (passed ? " PASSED!" : " FAILED!"));
+            StdOut.println("---");
+        }
+    }
+}
@@ -0,0 +1,412 @@
+/* *****************************************************************************
+ *  Name: Willy Chang
+ *  Date: 10/18/2026
+ *  Description: CollinearResultCache
+ **************************************************************************** */
+
+import edu.princeton.cs.algs4.StdOut;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Stream;
+
+public class CollinearResultCache implements CollinearEngine {
+    /*
+     * Disk entry layout, one file per fingerprint, all little-endian:
+     *
+     *   offset 0   magic "CSEG"
+     *   offset 4   int32 version, currently 1
+     *   offset 8   int32 number of segments m
+     *   offset 12  2m int32 endpoint indices, first and last of each segment
+     */
+    private static final int MAGIC = 'C' | 'S' << 8 | 'E' << 16 | 'G' << 24;
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 12;
+
+    // Estimated bytes of a memory entry besides its endpoint array: the
+    // fingerprint string, the array header and the map entry.
+    private static final int ENTRY_OVERHEAD = 200;
+
+    private final CollinearEngine engine;
+    private final long maxBytes;
+
+    // Directory of the disk tier, or null.
+    private final Path directory;
+
+    // Endpoint pairs by fingerprint, in access order, so the first entry is
+    // the least recently used.
+    private final LinkedHashMap<String, int[]> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long bytes;
+
+    private long hits;
+    private long diskHits;
+    private long misses;
+
+    /**
+     * Constructor for a cache that only keeps results in memory.
+     *
+     * @param engine engine that computes results on a miss
+     * @param maxBytes estimated bytes the cached results may take
+     */
+    public CollinearResultCache(CollinearEngine engine, long maxBytes) {
+        this(engine, maxBytes, null);
+    }
+
+    /**
+     * Constructor for a cache that also keeps every result in a directory,
+     * from which it is mapped back after a restart. The entries are only
+     * valid for the same engine configuration, so each configuration needs
+     * its own directory.
+     *
+     * @param engine engine that computes results on a miss
+     * @param maxBytes estimated bytes the results in memory may take
+     * @param directory directory of the disk tier, or null for none
+     * @throws UncheckedIOException if the directory cannot be created
+     */
+    public CollinearResultCache(CollinearEngine engine, long maxBytes, String directory) {
+        if (engine == null)
+            throw new IllegalArgumentException("No engine given.");
+        if (maxBytes < 0)
+            throw new IllegalArgumentException("Size must not be negative.");
+        this.engine = engine;
+        this.maxBytes = maxBytes;
+        this.directory = directory == null ? null : Paths.get(directory);
+        if (this.directory != null) {
+            try {
+                Files.createDirectories(this.directory);
+            }
+            catch (IOException ioException) {
+                throw new UncheckedIOException("Could not create " + directory + ".",
+                                                ioException);
+            }
+        }
+    }
+
+    /**
+     * Passes the segments of the store to the sink, from memory, from disk,
+     * or computed by the engine, in that order. Results found on disk or
+     * computed are added to memory, evicting the least recently used ones
+     * until they fit, and computed results are written to disk.
+     *
+     * <p>The lookups and counters are synchronized, the engine is not, so a
+     * cache is only safe to share between threads if its engine is.
+     *
+     * @param store points to process
+     * @param sink receives the segments
+     * @throws UncheckedIOException if the disk tier cannot be written
+     */
+    @Override
+    public void find(PointStore store, SegmentSink sink) {
+        String key = fingerprint(store);
+        int[] pairs;
+        synchronized (this) {
+            pairs = entries.get(key);
+            if (pairs != null)
+                hits++;
+        }
+        if (pairs == null) {
+            pairs = read(key);
+            if (pairs != null) {
+                synchronized (this) {
+                    diskHits++;
+                    put(key, pairs);
+                }
+            }
+        }
+        if (pairs == null) {
+            SegmentBuffer lines = new SegmentBuffer();
+            engine.find(store, lines);
+            pairs = lines.toArray();
+            synchronized (this) {
+                misses++;
+                put(key, pairs);
+            }
+            write(key, pairs);
+        }
+        for (int i = 0; i < pairs.length; i += 2)
+            sink.segment(pairs[i], pairs[i + 1]);
+    }
+
+    /**
+     * Return the segments of an array of Points, from the cache if the
+     * same point set was seen before in any order.
+     *
+     * @param points array of Points
+     * @return an array of the LineSegments
+     */
+    public LineSegment[] segments(Point[] points) {
+        if ((points == null) || (points.length == 0))
+            throw new IllegalArgumentException("No points given.");
+        PointStore store = PointStore.of(points);
+        SegmentBuffer lines = new SegmentBuffer();
+        find(store, lines);
+        return lines.toLineSegments(store);
+    }
+
+    /**
+     * Returns the fingerprint of a point set: the SHA-256 of its number of
+     * points and its packed points in ascending order (see
+     * PointStore.pack). A store is sorted, so the fingerprint does not
+     * depend on the order the points were given in.
+     *
+     * @param store the points
+     * @return the fingerprint as 64 hex digits
+     */
+    public static String fingerprint(PointStore store) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        }
+        catch (NoSuchAlgorithmException noSuchAlgorithmException) {
+            throw new IllegalStateException(noSuchAlgorithmException);
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(1 << 13).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(store.size());
+        for (int i = 0; i < store.size(); i++) {
+            if (buffer.remaining() < Long.BYTES) {
+                digest.update(buffer.array(), 0, buffer.position());
+                buffer.clear();
+            }
+            buffer.putLong(PointStore.pack(store.x(i), store.y(i)));
+        }
+        digest.update(buffer.array(), 0, buffer.position());
+
+        StringBuilder hex = new StringBuilder(64);
+        for (byte b : digest.digest()) {
+            hex.append(Character.forDigit((b >> 4) & 0xf, 16));
+            hex.append(Character.forDigit(b & 0xf, 16));
+        }
+        return hex.toString();
+    }
+
+    /**
+     * Adds an entry to memory and evicts the least recently used entries
+     * until the size fits. Entries larger than the cache are not added.
+     *
+     * @param key fingerprint of the point set
+     * @param pairs endpoint pairs of its segments
+     */
+    private void put(String key, int[] pairs) {
+        long size = size(pairs);
+        if (size > maxBytes)
+            return;
+        int[] old = entries.put(key, pairs);
+        if (old != null)
+            bytes -= size(old);
+        bytes += size;
+
+        Iterator<Map.Entry<String, int[]>> eldest = entries.entrySet().iterator();
+        while (bytes > maxBytes) {
+            Map.Entry<String, int[]> entry = eldest.next();
+            bytes -= size(entry.getValue());
+            eldest.remove();
+        }
+    }
+
+    /**
+     * Returns the estimated size of a memory entry.
+     *
+     * @param pairs endpoint pairs of the entry
+     * @return the size in bytes
+     */
+    private static long size(int[] pairs) {
+        return ENTRY_OVERHEAD + 4L * pairs.length;
+    }
+
+    /**
+     * Maps a disk entry and copies its endpoint pairs.
+     *
+     * @param key fingerprint of the point set
+     * @return the endpoint pairs, or null if there is no disk tier or no
+     * valid entry
+     */
+    private int[] read(String key) {
+        if (directory == null)
+            return null;
+        try (FileChannel channel = FileChannel.open(directory.resolve(key + ".segs"),
+                                                    StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_BYTES)
+                return null;
+            ByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, size)
+                                       .order(ByteOrder.LITTLE_ENDIAN);
+            int m = mapped.getInt(8);
+            if (mapped.getInt(0) != MAGIC || mapped.getInt(4) != VERSION || m < 0
+                    || size != HEADER_BYTES + 8L * m)
+                return null;
+            int[] pairs = new int[2 * m];
+            IntBuffer ints = mapped.position(HEADER_BYTES).slice()
+                                   .order(ByteOrder.LITTLE_ENDIAN).asIntBuffer();
+            ints.get(pairs);
+            return pairs;
+        }
+        catch (NoSuchFileException noSuchFileException) {
+            return null;
+        }
+        catch (IOException ioException) {
+            throw new UncheckedIOException("Could not read the cache entry " + key + ".",
+                                            ioException);
+        }
+    }
+
+    /**
+     * Writes a disk entry to a temporary file and moves it into place, so
+     * that readers never see half of an entry.
+     *
+     * @param key fingerprint of the point set
+     * @param pairs endpoint pairs of its segments
+     */
+    private void write(String key, int[] pairs) {
+        if (directory == null)
+            return;
+        try {
+            Path temp = Files.createTempFile(directory, key, ".tmp");
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES + 4 * pairs.length)
+                                              .order(ByteOrder.LITTLE_ENDIAN);
+                buffer.putInt(MAGIC).putInt(VERSION).putInt(pairs.length / 2);
+                buffer.asIntBuffer().put(pairs);
+                buffer.clear();
+                while (buffer.hasRemaining())
+                    channel.write(buffer);
+            }
+            Files.move(temp, directory.resolve(key + ".segs"), StandardCopyOption.REPLACE_EXISTING,
+                       StandardCopyOption.ATOMIC_MOVE);
+        }
+        catch (IOException ioException) {
+            throw new UncheckedIOException("Could not write the cache entry " + key + ".",
+                                            ioException);
+        }
+    }
+
+    /**
+     * Return the number of results found in memory.
+     *
+     * @return the number of memory hits
+     */
+    public synchronized long hits() {
+        return hits;
+    }
+
+    /**
+     * Return the number of results found on disk but not in memory.
+     *
+     * @return the number of disk hits
+     */
+    public synchronized long diskHits() {
+        return diskHits;
+    }
+
+    /**
+     * Return the number of results computed by the engine.
+     *
+     * @return the number of misses
+     */
+    public synchronized long misses() {
+        return misses;
+    }
+
+    /**
+     * Return the number of results in memory.
+     *
+     * @return the number of memory entries
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Return the estimated size of the results in memory.
+     *
+     * @return the size in bytes, at most the size given to the constructor
+     */
+    public synchronized long bytes() {
+        return bytes;
+    }
+
+    /**
+     * Removes all results from memory, keeping the disk tier and the
+     * counters.
+     */
+    public synchronized void clear() {
+        entries.clear();
+        bytes = 0;
+    }
+
+    /**
+     * Returns the names of segments in sorted order, so that the segments
+     * of a lookup can be compared with FastCollinearPoints.
+     *
+     * @param segments the segments
+     * @return their toString values, sorted
+     */
+    private static List<String> names(LineSegment[] segments) {
+        List<String> names = new ArrayList<>();
+        for (LineSegment segment : segments)
+            names.add(segment.toString());
+        Collections.sort(names);
+        return names;
+    }
+
+    public static void main(String[] args) throws IOException {
+        /* Look up every test file twice, the second time shuffled, then again
+         * from a new cache on the same directory, and compare the segments
+         * of the miss, the memory hit and the disk hit */
+        String[] testFiles = {
+                "input8.txt", "equidistant.txt", "input40.txt", "input48.txt",
+                "horizontal5.txt", "vertical5.txt", "random23.txt", "input6000.txt"
+        };
+        Path directory = Files.createTempDirectory("collinear-cache");
+        CollinearResultCache cache = new CollinearResultCache(
+                new SortingCollinearEngine(), 1 << 20, directory.toString());
+        CollinearResultCache restarted = new CollinearResultCache(
+                new SortingCollinearEngine(), 1 << 20, directory.toString());
+        for (int i = 0; i < testFiles.length; i++) {
+            StdOut.println(testFiles[i]);
+            Point[] points = PointFileReader.readPoints(testFiles[i]);
+            List<String> expected = names(new FastCollinearPoints(points).segments());
+
+            List<String> miss = names(cache.segments(points));
+            Collections.shuffle(Arrays.asList(points), new Random(i));
+            List<String> memoryHit = names(cache.segments(points));
+            List<String> diskHit = names(restarted.segments(points));
+            boolean passed = miss.equals(expected) && memoryHit.equals(expected)
+                    && diskHit.equals(expected);
+            StdOut.println(miss.size() + ", " + memoryHit.size() + ", " + diskHit.size() + " of "
+                                   + expected.size() + " segments"
+                                   + (passed ? " PASSED!" : " FAILED!"));
+            StdOut.println("---");
+        }
+        StdOut.println("hits=" + cache.hits() + " misses=" + cache.misses()
+                               + " restarted diskHits=" + restarted.diskHits()
+                               + " restarted misses=" + restarted.misses());
+        boolean passed = cache.hits() == testFiles.length && cache.misses() == testFiles.length
+                && restarted.diskHits() == testFiles.length && restarted.misses() == 0;
+        StdOut.println(passed ? "PASSED!" : "FAILED!");
+
+        try (Stream<Path> files = Files.list(directory)) {
+            files.forEach(file -> file.toFile().delete());
+        }
+        Files.delete(directory);
+    }
+}
@@ -0,0 +1,297 @@
+/* *****************************************************************************
+ *  Name: Willy Chang
+ *  Date: 10/18/2026
+ *  Description: CollinearSolver
+ **************************************************************************** */
+
+import edu.princeton.cs.algs4.StdOut;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public final class CollinearSolver {
+    // Below this many points the packed points are insertion sorted.
+    private static final int INSERTION_SORT_CUTOFF = 32;
+
+    // Engines by SortingCollinearEngine.Mode, each with its own scratch.
+    private final SortingCollinearEngine keyEngine;
+    private final SortingCollinearEngine comparatorEngine;
+
+    // Store that every point set is loaded into.
+    private final PointStore store = new PointStore();
+
+    // Scratch packed points and their input indices, and the radix sort
+    // buffers for them. origin[i] is the input index of the i-th point of
+    // the store.
+    private long[] keys = new long[0];
+    private long[] keyAux = new long[0];
+    private int[] origin = new int[0];
+    private int[] originAux = new int[0];
+    private final int[] counts = new int[257];
+
+    // Passes the segments of the engines on as input indices.
+    private final IndexSink indexSink = new IndexSink();
+
+    /**
+     * Private class for the sink given to the engines, which maps the store
+     * indices of every segment back to the indices of the input.
+     */
+    private class IndexSink implements SegmentSink {
+        private SegmentSink sink;
+
+        @Override
+        public void segment(int p, int q) {
+            sink.segment(origin[p], origin[q]);
+        }
+    }
+
+    /**
+     * Constructor for a solver that reports the segments of 4+ points.
+     */
+    public CollinearSolver() {
+        this(4);
+    }
+
+    /**
+     * Constructor for a solver that reports the segments of at least
+     * {@code minPoints} points.
+     *
+     * @param minPoints smallest number of points of a reported segment, at
+     * least 2
+     */
+    public CollinearSolver(int minPoints) {
+        keyEngine = new SortingCollinearEngine(SortingCollinearEngine.Mode.SLOPE_KEYS,
+                                               minPoints, null);
+        comparatorEngine = new SortingCollinearEngine(SortingCollinearEngine.Mode.COMPARATOR,
+                                                      minPoints, null);
+    }
+
+    /**
+     * Finds every maximal line segment of the points, like
+     * FastCollinearPoints, and passes it to the sink as indices into
+     * {@code points}, from the smallest to the largest point of the segment.
+     * The input is not modified or kept. The solver keeps its sorted copy of
+     * the points, the slope keys, the permutations and the sort buffers
+     * between calls and only grows them, so once it has solved a point set
+     * at least as large, a call allocates nothing; the segments go straight
+     * to the sink instead of into a list.
+     * <p>
+     * A solver is not thread-safe and must not be called again from the
+     * sink. It holds no shared state, so one solver per thread, e.g. in a
+     * {@code ThreadLocal}, can run in parallel with the others.
+     *
+     * @param points array of Points
+     * @param sink receives the segments
+     * @throws IllegalArgumentException if a point is null or if two points
+     * are equal
+     */
+    public void solve(Point[] points, SegmentSink sink) {
+        if (points == null || sink == null)
+            throw new IllegalArgumentException("No points or sink given.");
+        int n = points.length;
+        ensureCapacity(n);
+        for (int i = 0; i < n; i++) {
+            if (points[i] == null)
+                throw new IllegalArgumentException("Point is null.");
+            keys[i] = PointStore.pack(points[i].x(), points[i].y());
+            origin[i] = i;
+        }
+        solve(n, sink);
+    }
+
+    /**
+     * Finds every maximal line segment of the first {@code n} points of
+     * coordinate arrays, like solve for Points, and passes it to the sink as
+     * indices into the arrays.
+     *
+     * @param xs x-coordinates of the points
+     * @param ys y-coordinates of the points
+     * @param n number of points
+     * @param sink receives the segments
+     * @throws IllegalArgumentException if the arrays hold fewer than
+     * {@code n} points or if two points are equal
+     */
+    public void solve(int[] xs, int[] ys, int n, SegmentSink sink) {
+        if (xs == null || ys == null || sink == null)
+            throw new IllegalArgumentException("No points or sink given.");
+        if (n < 0 || n > xs.length || n > ys.length)
+            throw new IllegalArgumentException("Coordinate arrays hold fewer than n points.");
+        ensureCapacity(n);
+        for (int i = 0; i < n; i++) {
+            keys[i] = PointStore.pack(xs[i], ys[i]);
+            origin[i] = i;
+        }
+        solve(n, sink);
+    }
+
+    /**
+     * Sorts the packed points in {@code keys}, loads them into the store and
+     * runs the engine on it.
+     *
+     * @param n number of points
+     * @param sink receives the segments as input indices
+     */
+    private void solve(int n, SegmentSink sink) {
+        sortKeys(n);
+        for (int i = 1; i < n; i++) {
+            if (keys[i] == keys[i - 1])
+                throw new IllegalArgumentException("Duplicate points found.");
+        }
+        store.load(keys, n);
+
+        indexSink.sink = sink;
+        try {
+            if (store.fitsDirectionKeys())
+                keyEngine.find(store, indexSink);
+            else
+                comparatorEngine.find(store, indexSink);
+        }
+        finally {
+            indexSink.sink = null;
+        }
+    }
+
+    /**
+     * Makes sure the scratch arrays can hold {@code n} points.
+     *
+     * @param n number of points
+     */
+    private void ensureCapacity(int n) {
+        if (keys.length < n) {
+            int capacity = Math.max(n, 2 * keys.length);
+            keys = new long[capacity];
+            keyAux = new long[capacity];
+            origin = new int[capacity];
+            originAux = new int[capacity];
+        }
+    }
+
+    /**
+     * Stable sort of {@code keys[0, n)} as signed longs, moving
+     * {@code origin} along with the keys. Uses an LSD radix sort on the key
+     * bytes, skipping the bytes that are the same for every key, so that it
+     * does not allocate like Arrays.sort can.
+     *
+     * @param n number of keys
+     */
+    private void sortKeys(int n) {
+        if (n < INSERTION_SORT_CUTOFF) {
+            for (int i = 1; i < n; i++) {
+                long key = keys[i];
+                int index = origin[i];
+                int j = i;
+                for (; j > 0 && keys[j - 1] > key; j--) {
+                    keys[j] = keys[j - 1];
+                    origin[j] = origin[j - 1];
+                }
+                keys[j] = key;
+                origin[j] = index;
+            }
+            return;
+        }
+
+        for (int shift = 0; shift < 64; shift += 8) {
+            // Flip the sign bit in the top byte so that the bytes sort the
+            // keys as signed longs.
+            long flip = shift == 56 ? 0x80 : 0;
+            Arrays.fill(counts, 0);
+            for (int i = 0; i < n; i++)
+                counts[(int) (((keys[i] >>> shift) ^ flip) & 0xff) + 1]++;
+            if (counts[(int) (((keys[0] >>> shift) ^ flip) & 0xff) + 1] == n)
+                continue;
+            for (int r = 0; r < 256; r++)
+                counts[r + 1] += counts[r];
+            for (int i = 0; i < n; i++) {
+                int slot = counts[(int) (((keys[i] >>> shift) ^ flip) & 0xff)]++;
+                keyAux[slot] = keys[i];
+                originAux[slot] = origin[i];
+            }
+            long[] temp = keys;
+            keys = keyAux;
+            keyAux = temp;
+            int[] tempOrigin = origin;
+            origin = originAux;
+            originAux = tempOrigin;
+        }
+    }
+
+    /**
+     * Returns the bean that measures the bytes allocated by threads, if the
+     * JVM supports it. Looked up once, as the lookup itself allocates.
+     *
+     * @return the bean, or null
+     */
+    private static com.sun.management.ThreadMXBean allocationBean() {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        if (threads instanceof com.sun.management.ThreadMXBean)
+            return (com.sun.management.ThreadMXBean) threads;
+        return null;
+    }
+
+    /**
+     * Private class for a sink that only counts, so that it does not
+     * allocate while the solver is measured.
+     */
+    private static class CountingSink implements SegmentSink {
+        private long segments;
+        private long checksum;
+
+        @Override
+        public void segment(int p, int q) {
+            segments++;
+            checksum = 31 * checksum + 65537L * p + q;
+        }
+    }
+
+    public static void main(String[] args) {
+        /* Compare with FastCollinearPoints, reusing one solver for every
+         * file */
+        String[] testFiles = {
+                "input8.txt", "equidistant.txt", "input40.txt", "input48.txt",
+                "horizontal5.txt", "vertical5.txt", "random23.txt", "input6000.txt",
+                "grid6x6.txt", "input8.txt"
+        };
+        CollinearSolver solver = new CollinearSolver();
+        Point[][] inputs = new Point[testFiles.length][];
+        for (int i = 0; i < testFiles.length; i++) {
+            StdOut.println(testFiles[i]);
+            Point[] points = PointFileReader.readPoints(testFiles[i]);
+            inputs[i] = points;
+            List<String> expected = new ArrayList<>();
+            for (LineSegment segment : new FastCollinearPoints(points).segments())
+                expected.add(segment.toString());
+
+            List<String> found = new ArrayList<>();
+            solver.solve(points, (p, q) -> found.add(new LineSegment(points[p], points[q])
+                                                             .toString()));
+            StdOut.println(found.size() + " of " + expected.size() + " segments"
+                                   + (found.equals(expected) ? " PASSED!" : " FAILED!"));
+            StdOut.println("---");
+        }
+
+        /* Check that solving again allocates nothing once the solver has
+         * seen the largest input */
+        CountingSink sink = new CountingSink();
+        for (int round = 0; round < 20; round++) {
+            for (Point[] points : inputs)
+                solver.solve(points, sink);
+        }
+        com.sun.management.ThreadMXBean bean = allocationBean();
+        if (bean == null) {
+            StdOut.println("Allocation not measurable on this JVM.");
+            return;
+        }
+        long thread = Thread.currentThread().getId();
+        long before = bean.getThreadAllocatedBytes(thread);
+        for (int round = 0; round < 20; round++) {
+            for (Point[] points : inputs)
+                solver.solve(points, sink);
+        }
+        long allocated = bean.getThreadAllocatedBytes(thread) - before;
+        StdOut.println(allocated + " bytes allocated in " + 20 * inputs.length + " solves"
+                               + (allocated == 0 ? " PASSED!" : " FAILED!"));
+    }
+}
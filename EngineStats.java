@@ -0,0 +1,307 @@
+/* *****************************************************************************
+ *  Name: Willy Chang
+ *  Date: 10/18/2026
+ *  Description: EngineStats
+ **************************************************************************** */
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+public final class EngineStats {
+    /**
+     * Phases that the time of a run is split into.
+     */
+    public enum Phase {
+        // Validating and sorting the input points into a PointStore.
+        VALIDATE,
+        // Finding the horizontal and vertical segments (see AxisAlignedPass).
+        AXIS,
+        // Computing direction keys, and for the hash engine grouping by them.
+        KEYS,
+        // Sorting the points of an anchor by slope.
+        SORT,
+        // Finding the runs of equal slopes and emitting segments.
+        SCAN
+    }
+
+    // Runs of this many points or more share the last histogram bucket.
+    public static final int MAX_RUN = 64;
+
+    private final long[] phaseNanos = new long[Phase.values().length];
+    private long anchors;
+    private long slopeKeys;
+    private long slopeComparisons;
+    private long segments;
+
+    // Number of runs of equal slopes by their number of points, not counting
+    // the anchor.
+    private final long[] runs = new long[MAX_RUN + 1];
+
+    // Scratch arrays of the column sort in axis, reused across calls.
+    private final AxisAlignedPass.Scratch axisScratch = new AxisAlignedPass.Scratch();
+
+    /**
+     * JFR event committed for every call to an engine that has stats, so that
+     * runs can be lined up with garbage collection and other JVM events.
+     */
+    @Name("collinear.Scan")
+    @Label("Collinear Scan")
+    @Category("Collinear")
+    @Description("One call to a collinear engine")
+    static final class ScanEvent extends Event {
+        @Label("Engine")
+        String engine;
+
+        @Label("Points")
+        int points;
+
+        @Label("Anchors")
+        long anchors;
+
+        @Label("Slope Keys")
+        long slopeKeys;
+
+        @Label("Slope Comparisons")
+        long slopeComparisons;
+
+        @Label("Segments")
+        long segments;
+
+        @Label("Sort Time")
+        @Timespan(Timespan.NANOSECONDS)
+        long sortNanos;
+
+        @Label("Scan Time")
+        @Timespan(Timespan.NANOSECONDS)
+        long scanNanos;
+    }
+
+    /**
+     * Constructor for empty stats.
+     */
+    public EngineStats() {
+    }
+
+    /**
+     * Return the number of anchors processed.
+     *
+     * @return the number of anchors
+     */
+    public long anchors() {
+        return anchors;
+    }
+
+    /**
+     * Return the number of direction keys computed, i.e. slopes evaluated by
+     * the key-based engines.
+     *
+     * @return the number of direction keys
+     */
+    public long slopeKeys() {
+        return slopeKeys;
+    }
+
+    /**
+     * Return the number of slope comparator invocations made by the
+     * comparator-based sort.
+     *
+     * @return the number of slope comparisons
+     */
+    public long slopeComparisons() {
+        return slopeComparisons;
+    }
+
+    /**
+     * Return the number of segments emitted.
+     *
+     * @return the number of segments
+     */
+    public long segments() {
+        return segments;
+    }
+
+    /**
+     * Return the time spent in a phase.
+     *
+     * @param phase the phase
+     * @return the time in nanoseconds
+     */
+    public long phaseNanos(Phase phase) {
+        return phaseNanos[phase.ordinal()];
+    }
+
+    /**
+     * Return the number of runs of equal slopes with the given number of
+     * points, not counting the anchor. Runs of MAX_RUN or more points are
+     * counted together under MAX_RUN.
+     *
+     * @param length number of points in the run, from 1 to MAX_RUN
+     * @return the number of runs
+     */
+    public long runs(int length) {
+        if (length < 1 || length > MAX_RUN)
+            throw new IllegalArgumentException("Run length out of range.");
+        return runs[length];
+    }
+
+    /**
+     * Adds the time of a phase.
+     *
+     * @param phase the phase
+     * @param nanos the time in nanoseconds
+     */
+    void addTime(Phase phase, long nanos) {
+        phaseNanos[phase.ordinal()] += nanos;
+    }
+
+    /**
+     * Adds the counters of one anchor.
+     *
+     * @param keys number of direction keys computed
+     * @param comparisons number of slope comparisons made
+     */
+    void addAnchor(long keys, long comparisons) {
+        anchors++;
+        slopeKeys += keys;
+        slopeComparisons += comparisons;
+    }
+
+    /**
+     * Runs AxisAlignedPass into a sink and adds the time it took.
+     *
+     * @param store points to process
+     * @param minPoints smallest number of points of a reported segment
+     * @param sink receives the segments
+     */
+    void axis(PointStore store, int minPoints, SegmentSink sink) {
+        long start = System.nanoTime();
+        AxisAlignedPass.find(store, minPoints, sink, axisScratch);
+        addTime(Phase.AXIS, System.nanoTime() - start);
+    }
+
+    /**
+     * Counts a run of equal slopes.
+     *
+     * @param length number of points in the run, not counting the anchor
+     */
+    void addRun(int length) {
+        runs[Math.min(length, MAX_RUN)]++;
+    }
+
+    /**
+     * Adds all counters of other stats to these, e.g. to combine the stats of
+     * parallel workers.
+     *
+     * @param that the other stats
+     */
+    public void add(EngineStats that) {
+        for (int i = 0; i < phaseNanos.length; i++)
+            phaseNanos[i] += that.phaseNanos[i];
+        anchors += that.anchors;
+        slopeKeys += that.slopeKeys;
+        slopeComparisons += that.slopeComparisons;
+        segments += that.segments;
+        for (int i = 0; i < runs.length; i++)
+            runs[i] += that.runs[i];
+    }
+
+    /**
+     * Sets all counters back to zero.
+     */
+    public void reset() {
+        Arrays.fill(phaseNanos, 0);
+        anchors = 0;
+        slopeKeys = 0;
+        slopeComparisons = 0;
+        segments = 0;
+        Arrays.fill(runs, 0);
+    }
+
+    /**
+     * Wraps a sink so that every segment passed to it is counted.
+     *
+     * @param sink the sink to wrap
+     * @return a sink that counts and forwards the segments
+     */
+    SegmentSink counting(SegmentSink sink) {
+        return (p, q) -> {
+            segments++;
+            sink.segment(p, q);
+        };
+    }
+
+    /**
+     * Starts the JFR event of an engine call, remembering the current
+     * counters so that the event only reports this call.
+     *
+     * @param engine name of the engine
+     * @param points number of points in the store
+     * @return the started event
+     */
+    ScanEvent begin(String engine, int points) {
+        ScanEvent event = new ScanEvent();
+        event.begin();
+        event.engine = engine;
+        event.points = points;
+        event.anchors = -anchors;
+        event.slopeKeys = -slopeKeys;
+        event.slopeComparisons = -slopeComparisons;
+        event.segments = -segments;
+        event.sortNanos = -phaseNanos(Phase.KEYS) - phaseNanos(Phase.SORT);
+        event.scanNanos = -phaseNanos(Phase.SCAN);
+        return event;
+    }
+
+    /**
+     * Ends and commits the JFR event of an engine call.
+     *
+     * @param event the event returned by begin
+     */
+    void end(ScanEvent event) {
+        event.end();
+        if (!event.shouldCommit())
+            return;
+        event.anchors += anchors;
+        event.slopeKeys += slopeKeys;
+        event.slopeComparisons += slopeComparisons;
+        event.segments += segments;
+        event.sortNanos += phaseNanos(Phase.KEYS) + phaseNanos(Phase.SORT);
+        event.scanNanos += phaseNanos(Phase.SCAN);
+        event.commit();
+    }
+
+    /**
+     * Returns a summary of the counters, the phase times and the non-empty
+     * buckets of the run-length histogram.
+     *
+     * @return a string representation of the stats
+     */
+    @Override
+    public String toString() {
+        StringBuilder s = new StringBuilder();
+        s.append("anchors=").append(anchors)
+         .append(" slopeKeys=").append(slopeKeys)
+         .append(" slopeComparisons=").append(slopeComparisons)
+         .append(" segments=").append(segments);
+        for (Phase phase : Phase.values())
+            s.append(' ').append(phase.name().toLowerCase(Locale.ROOT)).append("Ms=")
+             .append(phaseNanos(phase) / 1000000);
+        s.append(" runs={");
+        String separator = "";
+        for (int length = 1; length <= MAX_RUN; length++) {
+            if (runs[length] != 0) {
+                s.append(separator).append(length == MAX_RUN ? MAX_RUN + "+" : length)
+                 .append(':').append(runs[length]);
+                separator = ", ";
+            }
+        }
+        return s.append('}').toString();
+    }
+}
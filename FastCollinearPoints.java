@@ -8,70 +8,74 @@ import edu.princeton.cs.algs4.In;
 import edu.princeton.cs.algs4.StdDraw;
 import edu.princeton.cs.algs4.StdOut;
 
-import java.util.ArrayList;
-import java.util.Arrays;
-
 public class FastCollinearPoints {
-    // Storing line segments connecting collinear points.
-    private ArrayList<LineSegment> lines = new ArrayList<>();
+    // Storing the points and the line segments connecting collinear points,
+    // as endpoint indices into the points.
+    private final PointStore store;
+    private final SegmentBuffer lines = new SegmentBuffer();
 
     /**
-     * Constructor that takes in an array of Points. Processes the slopes of
-     * all the points relative to the current point. Then, sorts the slopes and
-     * checks to see if there are slopes of equal magnitude and if there are 4+
-     * points with this slope. If there are, the {@code LineSegment} from the
-     * current point to the last is stored in {@code lines}.
+     * Constructor that takes in an array of Points. Copies the coordinates
+     * into a {@code PointStore} and lets {@code SortingCollinearEngine} find
+     * the lines that connect 4+ points with the same slope. The endpoints of
+     * each line found are stored in {@code lines}.
      *
      * @param points array of Points
      */
     public FastCollinearPoints(Point[] points) {
-        if ((points == null) || (points.length == 0))
-            throw new IllegalArgumentException("No points given.");
-
-        Point[] copy = points.clone();
+        this(points, false);
+    }
 
-        // Check Points array to see if there are null points or duplicates.
-        for (int a = 0; a < copy.length - 1; a++) {
-            if (copy[a] == null) {
-                throw new IllegalArgumentException("Point is null.");
-            }
-            for (int b = a + 1; b < copy.length; b++) {
-                if (copy[b] == null) {
-                    throw new IllegalArgumentException("Point is null.");
-                }
+    /**
+     * Constructor that takes in an array of Points and optionally merges
+     * duplicate points into one point instead of rejecting them.
+     *
+     * @param points array of Points
+     * @param mergeDuplicates whether to merge equal points
+     */
+    public FastCollinearPoints(Point[] points, boolean mergeDuplicates) {
+        this(points, mergeDuplicates, null);
+    }
 
-                if (copy[a].compareTo(copy[b]) == 0) {
-                    throw new IllegalArgumentException("Duplicate points found.");
-                }
-            }
-        }
+    /**
+     * Constructor that takes in an array of Points, optionally merges
+     * duplicate points and records statistics of the run, including the
+     * time spent validating the points.
+     *
+     * @param points array of Points
+     * @param mergeDuplicates whether to merge equal points
+     * @param stats statistics to record into, or null
+     */
+    public FastCollinearPoints(Point[] points, boolean mergeDuplicates, EngineStats stats) {
+        this(points, mergeDuplicates, 4, stats);
+    }
 
-        /*
-         * For each of the points, calculate the slope and find lines that
-         * connect 4+ points with the same slope.
-         */
-        for (int a = 0; a < copy.length - 3; a++) {
-            // Sort Points array in ascending order (see Points.compareTo).
-            Arrays.sort(copy);
-            // Sort the points based off their slopes to point copy[a].
-            Arrays.sort(copy, copy[a].slopeOrder());
-
-            for (int first = 1, last = 2; last < copy.length; last++) {
-                // Keep going if the slopes are the same
-                while (last < copy.length
-                        && Double.compare(copy[0].slopeTo(copy[first]),
-                                          copy[0].slopeTo(copy[last])) == 0)
-                    last++;
-
-                // Check to see if there are 4+ points in the line, If so,
-                // add it.
-                if (last - first >= 3 && copy[0].compareTo(copy[first]) < 0)
-                    lines.add(new LineSegment(copy[0], copy[last - 1]));
-
-                first = last;
-            }
+    /**
+     * Constructor that takes in an array of Points and finds the lines that
+     * connect at least {@code minPoints} points. The larger the threshold,
+     * the fewer anchors and candidate points the engine has to sort.
+     *
+     * @param points array of Points
+     * @param mergeDuplicates whether to merge equal points
+     * @param minPoints smallest number of points of a line, at least 2
+     * @param stats statistics to record into, or null
+     */
+    public FastCollinearPoints(Point[] points, boolean mergeDuplicates, int minPoints,
+                               EngineStats stats) {
+        if ((points == null) || (points.length == 0))
+            throw new IllegalArgumentException("No points given.");
 
-        }
+        // Check for null points or duplicates and sort the points once, the
+        // engine works on the sorted primitive coordinates. Slope keys are
+        // faster, but only fit when the coordinates are less than 2^31 apart.
+        long start = stats == null ? 0 : System.nanoTime();
+        store = PointStore.of(points, mergeDuplicates);
+        if (stats != null)
+            stats.addTime(EngineStats.Phase.VALIDATE, System.nanoTime() - start);
+        SortingCollinearEngine.Mode mode = store.fitsDirectionKeys()
+                                           ? SortingCollinearEngine.Mode.SLOPE_KEYS
+                                           : SortingCollinearEngine.Mode.COMPARATOR;
+        new SortingCollinearEngine(mode, minPoints, stats).find(store, lines);
     }
 
     /**
@@ -89,19 +93,29 @@ public class FastCollinearPoints {
      * @return an array of the LineSegments in {@code lines}
      */
     public LineSegment[] segments() {
-        return lines.toArray(new LineSegment[lines.size()]);
+        return lines.toLineSegments(store);
+    }
+
+    /**
+     * Return the segments in compact form: the coordinates of both endpoints
+     * of every segment, packed as x1, y1, x2, y2 per segment.
+     *
+     * @return the endpoint coordinates of the segments
+     */
+    public int[] segmentCoordinates() {
+        int[] coordinates = new int[4 * lines.size()];
+        for (int i = 0; i < lines.size(); i++) {
+            coordinates[4 * i] = store.x(lines.first(i));
+            coordinates[4 * i + 1] = store.y(lines.first(i));
+            coordinates[4 * i + 2] = store.x(lines.last(i));
+            coordinates[4 * i + 3] = store.y(lines.last(i));
+        }
+        return coordinates;
     }
 
     public static void main(String[] args) {
         if (args.length != 0) {
-            In in = new In(args[0]);
-            int n = in.readInt();
-            Point[] points = new Point[n];
-            for (int i = 0; i < n; i++) {
-                int x = in.readInt();
-                int y = in.readInt();
-                points[i] = new Point(x, y);
-            }
+            Point[] points = PointFileReader.readPoints(args[0]);
 
             StdDraw.enableDoubleBuffering();
             StdDraw.setXscale(0, 32768);
@@ -187,6 +201,20 @@ public class FastCollinearPoints {
                 StdOut.println(
                         "Passing array with duplicate points to FastCollinearPoints gives exception: IllegalArgumentException.");
             }
+
+            /* Test merging duplicate points in argument to constructor */
+            In in = new In(testFiles[0]);
+            int n = in.readInt();
+            Point[] points = new Point[2 * n];
+            for (int i = 0; i < n; i++) {
+                int x = in.readInt();
+                int y = in.readInt();
+                points[i] = new Point(x, y);
+                points[n + i] = new Point(x, y);
+            }
+            FastCollinearPoints collinear = new FastCollinearPoints(points, true);
+            StdOut.println("Merging duplicate points in FastCollinearPoints gives "
+                                   + collinear.numberOfSegments() + " segments.");
         }
     }
 }
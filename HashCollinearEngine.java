@@ -0,0 +1,280 @@
+/* *****************************************************************************
+ *  Name: Willy Chang
+ *  Date: 10/18/2026
+ *  Description: HashCollinearEngine
+ **************************************************************************** */
+
+import java.util.Arrays;
+
+public class HashCollinearEngine implements CollinearEngine {
+    // Multiplier of the Fibonacci hash used to spread the direction keys.
+    private static final long HASH_MULTIPLIER = 0x9E3779B97F4A7C15L;
+
+    // Open-addressing table from direction key to the group of points with
+    // that slope. A slot belongs to the current anchor only if its stamp matches,
+    // so the table never has to be cleared between anchors.
+    private long[] slotKeys;
+    private int[] slotStamps;
+    private int[] slotCounts;
+    private int[] slotLast;
+    private int shift;
+    private int stamp;
+
+    // Slots used by the current anchor, in the order they were first used.
+    private int[] used;
+    private int usedCount;
+
+    // Smallest number of points of a reported segment.
+    private final int minPoints;
+
+    // Statistics to record into, or null.
+    private final EngineStats stats;
+
+    /**
+     * Constructor for an engine without statistics.
+     */
+    public HashCollinearEngine() {
+        this(4, null);
+    }
+
+    /**
+     * Constructor for an engine that records statistics. Without statistics
+     * the scan does not read the clock or count anything.
+     *
+     * @param stats statistics to record into, or null
+     */
+    public HashCollinearEngine(EngineStats stats) {
+        this(4, stats);
+    }
+
+    /**
+     * Constructor for an engine that reports the segments of at least
+     * {@code minPoints} points and optionally records statistics.
+     *
+     * @param minPoints smallest number of points of a reported segment, at
+     * least 2
+     * @param stats statistics to record into, or null
+     */
+    public HashCollinearEngine(int minPoints, EngineStats stats) {
+        if (minPoints < 2)
+            throw new IllegalArgumentException("A segment needs at least 2 points.");
+        this.minPoints = minPoints;
+        this.stats = stats;
+    }
+
+    /**
+     * Finds every maximal line segment that connects at least
+     * {@code minPoints} points of the store. Horizontal and vertical segments
+     * are found first by AxisAlignedPass. For each anchor, the greater points
+     * that share neither a row nor a column with it are visited in ascending
+     * order and grouped by their exact direction key from the anchor in a
+     * hash table, which takes expected O(n) time per anchor instead of a
+     * sort. A group is a segment if it holds {@code minPoints - 1} or more
+     * points and no smaller point has the same key, which is looked up
+     * without inserting. The anchors stop at n - minPoints, as a segment
+     * needs minPoints - 1 points after its smallest point.
+     *
+     * @param store points to process
+     * @param sink receives the segments
+     */
+    @Override
+    public void find(PointStore store, SegmentSink sink) {
+        if (!store.fitsDirectionKeys())
+            throw new IllegalArgumentException("Coordinates too far apart for slope keys.");
+        int n = store.size();
+        int anchors = n - minPoints + 1;
+        ensureCapacity(n);
+
+        if (stats == null) {
+            AxisAlignedPass.find(store, minPoints, sink);
+            for (int p = 0; p < anchors; p++) {
+                if (group(store, p))
+                    emit(p, sink);
+            }
+            return;
+        }
+
+        EngineStats.ScanEvent event = stats.begin("hash", n);
+        SegmentSink counting = stats.counting(sink);
+        stats.axis(store, minPoints, counting);
+        for (int p = 0; p < anchors; p++) {
+            long start = System.nanoTime();
+            int large = groupLater(store, p);
+
+            // Record the groups before the dropped ones are cleared, and
+            // skip anchors with too few points like the sorting engine.
+            long keys = usedKeys();
+            if (keys >= minPoints - 1) {
+                stats.addAnchor(keys, 0);
+                for (int u = 0; u < usedCount; u++)
+                    stats.addRun(slotCounts[used[u]]);
+            }
+            if (large > 0)
+                dropEarlier(store, p);
+            long grouped = System.nanoTime();
+            if (large > 0)
+                emit(p, counting);
+            stats.addTime(EngineStats.Phase.KEYS, grouped - start);
+            stats.addTime(EngineStats.Phase.SCAN, System.nanoTime() - grouped);
+        }
+        stats.end(event);
+    }
+
+    /**
+     * Groups every point after {@code p} that shares neither a row nor a
+     * column with it by its direction key from {@code p}. If some group is
+     * large enough, the groups that also hold a point before {@code p} are
+     * dropped, as their segments start at a smaller anchor.
+     *
+     * @param store points to process
+     * @param p index of the anchor point
+     * @return true if a group is large enough to be a segment
+     */
+    private boolean group(PointStore store, int p) {
+        if (groupLater(store, p) == 0)
+            return false;
+        dropEarlier(store, p);
+        return true;
+    }
+
+    /**
+     * Groups every point after {@code p} that shares neither a row nor a
+     * column with it by its direction key from {@code p}.
+     *
+     * @param store points to process
+     * @param p index of the anchor point
+     * @return the number of groups large enough to be a segment
+     */
+    private int groupLater(PointStore store, int p) {
+        nextAnchor();
+
+        // Points are visited in ascending order, so the last point of a
+        // group is its largest.
+        int n = store.size();
+        int px = store.x(p), py = store.y(p);
+        int large = 0;
+        for (int q = p + 1; q < n; q++) {
+            if (store.x(q) == px || store.y(q) == py)
+                continue;
+            int slot = slot(store.direction(p, q));
+            if (++slotCounts[slot] == minPoints - 1)
+                large++;
+            slotLast[slot] = q;
+        }
+        return large;
+    }
+
+    /**
+     * Drops the groups of the current anchor that also hold a point before
+     * {@code p}, as their segments start at a smaller anchor.
+     *
+     * @param store points to process
+     * @param p index of the anchor point
+     */
+    private void dropEarlier(PointStore store, int p) {
+        int px = store.x(p), py = store.y(p);
+        for (int q = 0; q < p; q++) {
+            if (store.x(q) == px || store.y(q) == py)
+                continue;
+            int slot = find(store.direction(p, q));
+            if (slot >= 0)
+                slotCounts[slot] = 0;
+        }
+    }
+
+    /**
+     * Return the number of points grouped for the current anchor.
+     *
+     * @return the sum of the counts of the used slots
+     */
+    private long usedKeys() {
+        long keys = 0;
+        for (int u = 0; u < usedCount; u++)
+            keys += slotCounts[used[u]];
+        return keys;
+    }
+
+    /**
+     * Adds the segments that start at {@code p}, from the groups of the
+     * current anchor.
+     *
+     * @param p index of the anchor point
+     * @param sink receives the segments
+     */
+    private void emit(int p, SegmentSink sink) {
+        for (int u = 0; u < usedCount; u++) {
+            int slot = used[u];
+            if (slotCounts[slot] >= minPoints - 1)
+                sink.segment(p, slotLast[slot]);
+        }
+    }
+
+    /**
+     * Makes sure the table has at least twice as many slots as points.
+     *
+     * @param n number of points
+     */
+    private void ensureCapacity(int n) {
+        int capacity = Integer.highestOneBit(Math.max(2, 2 * n - 1)) << 1;
+        if (slotKeys != null && slotKeys.length >= capacity)
+            return;
+        slotKeys = new long[capacity];
+        slotStamps = new int[capacity];
+        slotCounts = new int[capacity];
+        slotLast = new int[capacity];
+        used = new int[capacity];
+        shift = 64 - Integer.numberOfTrailingZeros(capacity);
+        stamp = 0;
+    }
+
+    /**
+     * Invalidates every slot of the table in O(1) time.
+     */
+    private void nextAnchor() {
+        usedCount = 0;
+        if (++stamp == 0) {
+            Arrays.fill(slotStamps, 0);
+            stamp = 1;
+        }
+    }
+
+    /**
+     * Returns the slot of the given key, claiming an empty slot for it with a
+     * count of zero if the current anchor has not seen the key yet.
+     *
+     * @param key direction key
+     * @return the slot of the key
+     */
+    private int slot(long key) {
+        int mask = slotKeys.length - 1;
+        int slot = (int) ((key * HASH_MULTIPLIER) >>> shift);
+        while (slotStamps[slot] == stamp) {
+            if (slotKeys[slot] == key)
+                return slot;
+            slot = (slot + 1) & mask;
+        }
+        slotStamps[slot] = stamp;
+        slotKeys[slot] = key;
+        slotCounts[slot] = 0;
+        used[usedCount++] = slot;
+        return slot;
+    }
+
+    /**
+     * Returns the slot of the given key without claiming one.
+     *
+     * @param key direction key
+     * @return the slot of the key, or -1 if the current anchor has not seen
+     * it
+     */
+    private int find(long key) {
+        int mask = slotKeys.length - 1;
+        int slot = (int) ((key * HASH_MULTIPLIER) >>> shift);
+        while (slotStamps[slot] == stamp) {
+            if (slotKeys[slot] == key)
+                return slot;
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,252 @@
+/* *****************************************************************************
+ *  Name: Willy Chang
+ *  Date: 10/18/2026
+ *  Description: IncrementalCollinearIndex
+ **************************************************************************** */
+
+import edu.princeton.cs.algs4.In;
+import edu.princeton.cs.algs4.StdOut;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class IncrementalCollinearIndex {
+    // Coordinates of the current points, densely packed in no particular
+    // order, and the position of every point in them.
+    private int[] xs = new int[16];
+    private int[] ys = new int[16];
+    private int n;
+    private final HashMap<Long, Integer> positions = new HashMap<>();
+
+    // Maximal segments of 4+ points, by the line they lie on.
+    private final HashMap<LineKey, Line> lines = new HashMap<>();
+
+    // Segments returned by the last call to segments(), null after a change.
+    private LineSegment[] cached;
+
+    /**
+     * Private class for the points of the current point set on one line.
+     * Endpoints are packed points (see PointStore.pack), so they compare in
+     * the order of Point.compareTo.
+     */
+    private static class Line {
+        private int count;
+        private long first;
+        private long last;
+
+        /**
+         * Adds a packed point to the line.
+         *
+         * @param point packed point
+         */
+        void add(long point) {
+            if (count == 0 || point < first)
+                first = point;
+            if (count == 0 || point > last)
+                last = point;
+            count++;
+        }
+    }
+
+    /**
+     * Constructor for an empty index.
+     */
+    public IncrementalCollinearIndex() {
+    }
+
+    /**
+     * Constructor that inserts an array of Points.
+     *
+     * @param points array of Points
+     */
+    public IncrementalCollinearIndex(Point[] points) {
+        if (points == null)
+            throw new IllegalArgumentException("No points given.");
+        for (Point p : points)
+            insert(p);
+    }
+
+    /**
+     * Inserts a point. Groups the current points by the line they form with
+     * the new point, which takes expected O(n) time, and creates or extends
+     * the segment of every line that now holds 4+ points.
+     *
+     * @param p the point to insert
+     * @throws IllegalArgumentException if p is null or already in the index
+     */
+    public void insert(Point p) {
+        if (p == null)
+            throw new IllegalArgumentException("Point is null.");
+        long key = PointStore.pack(p.x(), p.y());
+        if (positions.containsKey(key))
+            throw new IllegalArgumentException("Duplicate points found.");
+
+        HashMap<LineKey, Line> through = linesThrough(p.x(), p.y());
+        for (Map.Entry<LineKey, Line> entry : through.entrySet()) {
+            Line line = entry.getValue();
+            if (line.count >= 3) {
+                line.add(key);
+                lines.put(entry.getKey(), line);
+            }
+        }
+
+        if (n == xs.length) {
+            xs = Arrays.copyOf(xs, 2 * n);
+            ys = Arrays.copyOf(ys, 2 * n);
+        }
+        xs[n] = p.x();
+        ys[n] = p.y();
+        positions.put(key, n++);
+        cached = null;
+    }
+
+    /**
+     * Deletes a point. Groups the remaining points by the line they form with
+     * the deleted point, which takes expected O(n) time. Every segment through
+     * the point shrinks to the remaining points of its line, or is dropped if
+     * fewer than 4 remain.
+     *
+     * @param p the point to delete
+     * @return true if the point was in the index
+     */
+    public boolean delete(Point p) {
+        if (p == null)
+            throw new IllegalArgumentException("Point is null.");
+        Integer position = positions.remove(PointStore.pack(p.x(), p.y()));
+        if (position == null)
+            return false;
+
+        // Move the last point into the hole.
+        n--;
+        if (position != n) {
+            xs[position] = xs[n];
+            ys[position] = ys[n];
+            positions.put(PointStore.pack(xs[n], ys[n]), position);
+        }
+
+        HashMap<LineKey, Line> through = linesThrough(p.x(), p.y());
+        for (Map.Entry<LineKey, Line> entry : through.entrySet()) {
+            Line line = entry.getValue();
+            if (line.count >= 4)
+                lines.put(entry.getKey(), line);
+            else if (line.count == 3)
+                lines.remove(entry.getKey());
+        }
+        cached = null;
+        return true;
+    }
+
+    /**
+     * Groups the current points by the line they form with (x, y).
+     *
+     * @param x x-coordinate of the point
+     * @param y y-coordinate of the point
+     * @return the current points on every line through (x, y)
+     */
+    private HashMap<LineKey, Line> linesThrough(int x, int y) {
+        HashMap<LineKey, Line> through = new HashMap<>();
+        for (int i = 0; i < n; i++) {
+            LineKey line = LineKey.through(x, y, xs[i], ys[i]);
+            through.computeIfAbsent(line, k -> new Line()).add(PointStore.pack(xs[i], ys[i]));
+        }
+        return through;
+    }
+
+    /**
+     * Return the number of points in the index.
+     *
+     * @return the number of points
+     */
+    public int size() {
+        return n;
+    }
+
+    /**
+     * Return the number of line segments that contain collinear points.
+     *
+     * @return the number of maximal segments of 4+ points
+     */
+    public int numberOfSegments() {
+        return lines.size();
+    }
+
+    /**
+     * Return an array of the maximal line segments of 4+ points of the
+     * current point set. The array is kept until the next change, so calls
+     * without changes in between do not recompute anything.
+     *
+     * @return an array of the current LineSegments
+     */
+    public LineSegment[] segments() {
+        if (cached == null) {
+            cached = new LineSegment[lines.size()];
+            int i = 0;
+            for (Line line : lines.values()) {
+                cached[i++] = new LineSegment(
+                        new Point(PointStore.unpackX(line.first), PointStore.unpackY(line.first)),
+                        new Point(PointStore.unpackX(line.last), PointStore.unpackY(line.last)));
+            }
+        }
+        return cached.clone();
+    }
+
+    /**
+     * Returns the strings of segments in sorted order, so that segment lists
+     * found in different orders can be compared.
+     *
+     * @param segments the segments
+     * @return the sorted strings of the segments
+     */
+    private static List<String> names(LineSegment[] segments) {
+        List<String> names = new ArrayList<>();
+        for (LineSegment segment : segments)
+            names.add(segment.toString());
+        Collections.sort(names);
+        return names;
+    }
+
+    public static void main(String[] args) {
+        /* Test the index against FastCollinearPoints while inserting and
+         * deleting points */
+        String[] testFiles = {
+                "input8.txt", "equidistant.txt", "input40.txt", "input48.txt",
+                "horizontal5.txt", "vertical5.txt", "random23.txt", "grid6x6.txt"
+        };
+        for (int i = 0; i < testFiles.length; i++) {
+            StdOut.println(testFiles[i]);
+            In in = new In(testFiles[i]);
+            int n = in.readInt();
+            Point[] points = new Point[n];
+            for (int j = 0; j < n; j++) {
+                int x = in.readInt();
+                int y = in.readInt();
+                points[j] = new Point(x, y);
+            }
+
+            IncrementalCollinearIndex index = new IncrementalCollinearIndex(points);
+            List<String> expected = names(new FastCollinearPoints(points).segments());
+            List<String> found = names(index.segments());
+            StdOut.println("After inserting " + n + " points: " + found.size() + " of "
+                                   + expected.size() + " segments"
+                                   + (found.equals(expected) ? " PASSED!" : " FAILED!"));
+
+            for (int j = 0; j < n; j += 2)
+                index.delete(points[j]);
+            Point[] remaining = new Point[n / 2];
+            for (int j = 1; j < n; j += 2)
+                remaining[j / 2] = points[j];
+            expected = remaining.length == 0
+                       ? new ArrayList<>()
+                       : names(new FastCollinearPoints(remaining).segments());
+            found = names(index.segments());
+            StdOut.println("After deleting " + (n - n / 2) + " points: " + found.size() + " of "
+                                   + expected.size() + " segments"
+                                   + (found.equals(expected) ? " PASSED!" : " FAILED!"));
+            StdOut.println("---");
+        }
+    }
+}
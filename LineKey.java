@@ -0,0 +1,187 @@
+/* *****************************************************************************
+ *  Name: Willy Chang
+ *  Date: 10/18/2026
+ *  Description: LineKey
+ **************************************************************************** */
+
+public final class LineKey {
+    // Normalized coefficients of the line a * x + b * y = c.
+    private final long a;
+    private final long b;
+    private final long c;
+
+    /**
+     * Constructor that takes in normalized coefficients.
+     *
+     * @param a coefficient of x
+     * @param b coefficient of y
+     * @param c constant term
+     */
+    private LineKey(long a, long b, long c) {
+        this.a = a;
+        this.b = b;
+        this.c = c;
+    }
+
+    /**
+     * Returns the key of the line through two points. The coefficients are
+     * divided by their gcd and their sign is chosen so that a > 0, or a = 0
+     * and b > 0, so every line has exactly one key.
+     *
+     * @param x1 x-coordinate of the first point
+     * @param y1 y-coordinate of the first point
+     * @param x2 x-coordinate of the second point
+     * @param y2 y-coordinate of the second point
+     * @return the key of the line through both points
+     * @throws IllegalArgumentException if the points are equal, or if the
+     * constant term does not fit into a long
+     */
+    public static LineKey through(int x1, int y1, int x2, int y2) {
+        long a = (long) y2 - y1;
+        long b = (long) x1 - x2;
+        if (a == 0 && b == 0)
+            throw new IllegalArgumentException("Points are equal.");
+
+        long g = gcd(Math.abs(a), Math.abs(b));
+        a /= g;
+        b /= g;
+        if (a < 0 || (a == 0 && b < 0)) {
+            a = -a;
+            b = -b;
+        }
+
+        try {
+            long c = Math.addExact(Math.multiplyExact(a, x1), Math.multiplyExact(b, y1));
+            return new LineKey(a, b, c);
+        }
+        catch (ArithmeticException arithmeticException) {
+            throw new IllegalArgumentException("Coordinates too far apart.");
+        }
+    }
+
+    /**
+     * Return the coefficient of x.
+     *
+     * @return a in a * x + b * y = c
+     */
+    public long a() {
+        return a;
+    }
+
+    /**
+     * Return the coefficient of y.
+     *
+     * @return b in a * x + b * y = c
+     */
+    public long b() {
+        return b;
+    }
+
+    /**
+     * Return the constant term.
+     *
+     * @return c in a * x + b * y = c
+     */
+    public long c() {
+        return c;
+    }
+
+    /**
+     * Returns the key of the parallel line through the origin, which is the
+     * same for all lines with the same direction.
+     *
+     * @return the key of a * x + b * y = 0
+     */
+    public LineKey direction() {
+        return c == 0 ? this : new LineKey(a, b, 0);
+    }
+
+    /**
+     * Returns the key of the parallel line through a point.
+     *
+     * @param x x-coordinate of the point
+     * @param y y-coordinate of the point
+     * @return the key of the line with the same a and b through the point,
+     * or null if its constant term does not fit into a long
+     */
+    public LineKey parallelThrough(int x, int y) {
+        try {
+            long c = Math.addExact(Math.multiplyExact(a, x), Math.multiplyExact(b, y));
+            return new LineKey(a, b, c);
+        }
+        catch (ArithmeticException arithmeticException) {
+            return null;
+        }
+    }
+
+    /**
+     * Returns whether the line passes through a point.
+     *
+     * @param x x-coordinate of the point
+     * @param y y-coordinate of the point
+     * @return true if a * x + b * y = c
+     */
+    public boolean contains(int x, int y) {
+        // a * x + b * y needs up to 65 bits, so add the products with
+        // 128-bit precision and compare with c sign-extended to 128 bits.
+        long low1 = a * x;
+        long low2 = b * y;
+        long low = low1 + low2;
+        long carry = Long.compareUnsigned(low, low1) < 0 ? 1 : 0;
+        long high = Math.multiplyHigh(a, x) + Math.multiplyHigh(b, y) + carry;
+        return low == c && high == (c >> 63);
+    }
+
+    /**
+     * Returns whether two lines are parallel, i.e. have the same direction.
+     *
+     * @param that the other line
+     * @return true if both lines have the same (a, b)
+     */
+    public boolean isParallelTo(LineKey that) {
+        return this.a == that.a && this.b == that.b;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other)
+            return true;
+        if (!(other instanceof LineKey))
+            return false;
+        LineKey that = (LineKey) other;
+        return this.a == that.a && this.b == that.b && this.c == that.c;
+    }
+
+    @Override
+    public int hashCode() {
+        long h = a * 0x9E3779B97F4A7C15L + b;
+        h = h * 0x9E3779B97F4A7C15L + c;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    /**
+     * Returns a string representation of this line.
+     *
+     * @return a string representation of this line
+     */
+    @Override
+    public String toString() {
+        return a + "x + " + b + "y = " + c;
+    }
+
+    /**
+     * Euclid's gcd of two non-negative numbers, not both zero.
+     *
+     * @param p first number
+     * @param q second number
+     * @return the greatest common divisor of p and q
+     */
+    private static long gcd(long p, long q) {
+        while (q != 0) {
+            long r = p % q;
+            p = q;
+            q = r;
+        }
+        return p;
+    }
+}
@@ -0,0 +1,430 @@
+/* *****************************************************************************
+ *  Name: Willy Chang
+ *  Date: 10/18/2026
+ *  Description: OffHeapCollinearEngine
+ **************************************************************************** */
+
+import edu.princeton.cs.algs4.StdOut;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+public class OffHeapCollinearEngine implements CollinearEngine, AutoCloseable {
+    // Insertion sort is faster than the radix sort below this size.
+    private static final int INSERTION_SORT_CUTOFF = 64;
+
+    // Smallest number of points of a reported segment.
+    private final int minPoints;
+
+    // Coordinates copied from a PointStore, reused across calls.
+    private IntBuffer ownXs;
+    private IntBuffer ownYs;
+
+    // Scratch direction keys and point indices of the current anchor, and
+    // the radix sort buffers for them. After the sort, orderAux holds the
+    // positions of the runs.
+    private LongBuffer keys;
+    private LongBuffer keyAux;
+    private long keyShift;
+    private IntBuffer order;
+    private IntBuffer orderAux;
+    private final int[] counts = new int[257];
+
+    // Coordinates of the current call and how to compute their keys.
+    private IntBuffer xs;
+    private IntBuffer ys;
+    private boolean quotientKeys;
+    private long keyWidth;
+
+    private boolean closed;
+
+    /**
+     * Constructor for an engine that reports the segments of 4+ points.
+     */
+    public OffHeapCollinearEngine() {
+        this(4);
+    }
+
+    /**
+     * Constructor for an engine that reports the segments of at least
+     * {@code minPoints} points.
+     *
+     * @param minPoints smallest number of points of a reported segment, at
+     * least 2
+     */
+    public OffHeapCollinearEngine(int minPoints) {
+        if (minPoints < 2)
+            throw new IllegalArgumentException("A segment needs at least 2 points.");
+        this.minPoints = minPoints;
+    }
+
+    /**
+     * Finds the segments of a store. The coordinates are copied into direct
+     * buffers once, which the engine keeps for the next call.
+     *
+     * @param store points to process
+     * @param sink receives the segments
+     */
+    @Override
+    public void find(PointStore store, SegmentSink sink) {
+        checkOpen();
+        int n = store.size();
+        if (ownXs == null || ownXs.capacity() < n) {
+            ownXs = allocate(4L * n).asIntBuffer();
+            ownYs = allocate(4L * n).asIntBuffer();
+        }
+        for (int i = 0; i < n; i++) {
+            ownXs.put(i, store.x(i));
+            ownYs.put(i, store.y(i));
+        }
+        find(ownXs.duplicate().limit(n), ownYs.duplicate().limit(n), sink);
+    }
+
+    /**
+     * Finds the segments of a mapped point column file, reading the
+     * coordinates straight from the mapping.
+     *
+     * @param file points to process, written from a PointStore
+     * @param sink receives the segments
+     * @throws IllegalArgumentException if the file is not flagged as sorted
+     */
+    public void find(PointColumnFile file, SegmentSink sink) {
+        if (!file.isSorted())
+            throw new IllegalArgumentException("Points are not sorted.");
+        find(file.xs(), file.ys(), sink);
+    }
+
+    /**
+     * Finds every maximal line segment that connects at least
+     * {@code minPoints} points, given as coordinate buffers that are
+     * distinct and in ascending order (see Point.compareTo), e.g. mapped from
+     * a file. Segments are passed to the sink as indices into the buffers.
+     *
+     * <p>The engine works like the SLOPE_KEYS mode of SortingCollinearEngine,
+     * but every per-anchor array is a direct buffer, so the heap holds
+     * nothing that grows with the number of points. For each anchor p the
+     * points after p are sorted by their direction key from p, and a run of
+     * {@code minPoints - 1} or more equal keys is a segment unless a point
+     * before p has the same key. Horizontal and vertical segments are found
+     * by the same keys.
+     *
+     * @param xs x-coordinates of the points
+     * @param ys y-coordinates of the points
+     * @param sink receives the segments
+     * @throws IllegalArgumentException if the buffers differ in length, the
+     * points are not distinct and in ascending order, or they are too far
+     * apart for slope keys
+     */
+    public void find(IntBuffer xs, IntBuffer ys, SegmentSink sink) {
+        checkOpen();
+        int n = xs.limit();
+        if (ys.limit() != n)
+            throw new IllegalArgumentException("Coordinate arrays differ in length.");
+        if (n == 0)
+            return;
+
+        int minX = Integer.MAX_VALUE, maxX = Integer.MIN_VALUE;
+        for (int i = 0; i < n; i++) {
+            if (i > 0 && PointStore.pack(xs.get(i - 1), ys.get(i - 1))
+                    >= PointStore.pack(xs.get(i), ys.get(i)))
+                throw new IllegalArgumentException("Points are not sorted.");
+            minX = Math.min(minX, xs.get(i));
+            maxX = Math.max(maxX, xs.get(i));
+        }
+        long spanX = (long) maxX - minX;
+        long spanY = (long) ys.get(n - 1) - ys.get(0);
+        if (!Slopes.fitsDirection(spanX, spanY))
+            throw new IllegalArgumentException("Coordinates too far apart for slope keys.");
+        quotientKeys = Slopes.fitsQuotient(spanX, spanY);
+        keyWidth = spanX + 1;
+
+        ensureCapacity(n);
+        this.xs = xs;
+        this.ys = ys;
+        for (int p = 0; p < n - minPoints + 1; p++) {
+            int m = computeKeys(p, n);
+            sortKeys(m);
+            scanKeys(p, m, sink);
+        }
+        this.xs = null;
+        this.ys = null;
+    }
+
+    /**
+     * Return the number of bytes the engine holds off the heap.
+     *
+     * @return the capacity of the direct buffers in bytes
+     */
+    public long offHeapBytes() {
+        long bytes = 0;
+        if (ownXs != null)
+            bytes += 8L * ownXs.capacity();
+        if (keys != null)
+            bytes += 16L * keys.capacity() + 8L * order.capacity();
+        return bytes;
+    }
+
+    /**
+     * Drops the direct buffers of the engine. Java 17 has no public way to
+     * free a direct buffer, so the memory is returned once the buffers are
+     * collected; the engine cannot be used afterwards, which keeps the
+     * lifetime of the buffers explicit.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        ownXs = null;
+        ownYs = null;
+        keys = null;
+        keyAux = null;
+        order = null;
+        orderAux = null;
+    }
+
+    /**
+     * Throws if the engine was closed.
+     *
+     * @throws IllegalStateException if {@code close} was called
+     */
+    private void checkOpen() {
+        if (closed)
+            throw new IllegalStateException("Engine is closed.");
+    }
+
+    /**
+     * Allocates a direct buffer in native byte order.
+     *
+     * @param bytes size of the buffer
+     * @return the buffer
+     */
+    private static ByteBuffer allocate(long bytes) {
+        if (bytes > Integer.MAX_VALUE)
+            throw new IllegalArgumentException("Too many points for a buffer.");
+        return ByteBuffer.allocateDirect((int) bytes).order(ByteOrder.nativeOrder());
+    }
+
+    /**
+     * Makes sure the scratch buffers can hold {@code n} points.
+     *
+     * @param n number of points
+     */
+    private void ensureCapacity(int n) {
+        if (keys != null && keys.capacity() >= n)
+            return;
+        keys = allocate(8L * n).asLongBuffer();
+        keyAux = allocate(8L * n).asLongBuffer();
+        order = allocate(4L * n).asIntBuffer();
+        orderAux = allocate(4L * n).asIntBuffer();
+    }
+
+    /**
+     * Returns the direction key between two points (see
+     * PointStore.direction).
+     *
+     * @param i index of the first point
+     * @param j index of the second point
+     * @return the direction key between the two points
+     */
+    private long direction(int i, int j) {
+        int dx = xs.get(j) - xs.get(i), dy = ys.get(j) - ys.get(i);
+        if (quotientKeys)
+            return Slopes.quotient(dx, dy);
+        return Slopes.direction(dx, dy, keyWidth);
+    }
+
+    /**
+     * Fills the scratch buffers with the points after {@code p}, in
+     * ascending order, and their direction keys from {@code p}, minus the
+     * smallest key so that the keys sort as unsigned values.
+     *
+     * @param p index of the anchor point
+     * @param n number of points
+     * @return the number of points after {@code p}
+     */
+    private int computeKeys(int p, int n) {
+        int m = n - p - 1;
+        long min = Long.MAX_VALUE;
+        for (int i = 0; i < m; i++) {
+            long key = direction(p, p + 1 + i);
+            keys.put(i, key);
+            order.put(i, p + 1 + i);
+            min = Math.min(min, key);
+        }
+        keyShift = min;
+        for (int i = 0; i < m; i++)
+            keys.put(i, keys.get(i) - min);
+        return m;
+    }
+
+    /**
+     * Stably sorts the first {@code n} keys as unsigned values, carrying the
+     * point indices along. Uses an LSD radix sort that skips the bytes
+     * shared by all keys, and insertion sort for few keys.
+     *
+     * @param n number of keys
+     */
+    private void sortKeys(int n) {
+        if (n < INSERTION_SORT_CUTOFF) {
+            for (int i = 1; i < n; i++) {
+                long key = keys.get(i);
+                int index = order.get(i);
+                int j = i;
+                for (; j > 0 && Long.compareUnsigned(keys.get(j - 1), key) > 0; j--) {
+                    keys.put(j, keys.get(j - 1));
+                    order.put(j, order.get(j - 1));
+                }
+                keys.put(j, key);
+                order.put(j, index);
+            }
+            return;
+        }
+
+        LongBuffer from = keys, to = keyAux;
+        IntBuffer fromOrder = order, toOrder = orderAux;
+        for (int shift = 0; shift < 64; shift += 8) {
+            Arrays.fill(counts, 0);
+            for (int i = 0; i < n; i++)
+                counts[(int) ((from.get(i) >>> shift) & 0xff) + 1]++;
+            if (counts[(int) ((from.get(0) >>> shift) & 0xff) + 1] == n)
+                continue;
+            for (int r = 0; r < 256; r++)
+                counts[r + 1] += counts[r];
+            for (int i = 0; i < n; i++) {
+                long key = from.get(i);
+                int slot = counts[(int) ((key >>> shift) & 0xff)]++;
+                to.put(slot, key);
+                toOrder.put(slot, fromOrder.get(i));
+            }
+            LongBuffer keyTemp = from;
+            from = to;
+            to = keyTemp;
+            IntBuffer orderTemp = fromOrder;
+            fromOrder = toOrder;
+            toOrder = orderTemp;
+        }
+
+        // Swap the buffers instead of copying back.
+        keys = from;
+        keyAux = to;
+        order = fromOrder;
+        orderAux = toOrder;
+    }
+
+    /**
+     * Adds the segments that start at {@code p}. Runs of enough equal keys
+     * are collected first, then every point before {@code p} looks up its
+     * key among them with a binary search and drops the run it extends.
+     *
+     * @param p index of the anchor point
+     * @param n number of sorted keys
+     * @param sink receives the segments
+     */
+    private void scanKeys(int p, int n, SegmentSink sink) {
+        int runs = 0;
+        for (int first = 0, last = 1; first < n; last++) {
+            while (last < n && keys.get(first) == keys.get(last))
+                last++;
+            if (last - first >= minPoints - 1)
+                orderAux.put(runs++, first);
+            first = last;
+        }
+        if (runs == 0)
+            return;
+
+        for (int q = 0; q < p; q++) {
+            int run = findRun(direction(p, q) - keyShift, runs);
+            if (run >= 0 && orderAux.get(run) >= 0)
+                orderAux.put(run, ~orderAux.get(run));
+        }
+
+        for (int r = 0; r < runs; r++) {
+            int first = orderAux.get(r);
+            if (first < 0)
+                continue;
+            int last = first;
+            while (last + 1 < n && keys.get(last + 1) == keys.get(first))
+                last++;
+            sink.segment(p, order.get(last));
+        }
+    }
+
+    /**
+     * Binary search for the run with the given shifted key.
+     *
+     * @param key direction key minus the smallest key
+     * @param runs number of runs
+     * @return the position of the run in {@code orderAux}, or -1
+     */
+    private int findRun(long key, int runs) {
+        int lo = 0, hi = runs - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            int first = orderAux.get(mid);
+            int cmp = Long.compareUnsigned(keys.get(first < 0 ? ~first : first), key);
+            if (cmp < 0)
+                lo = mid + 1;
+            else if (cmp > 0)
+                hi = mid - 1;
+            else
+                return mid;
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the names of segments in sorted order, as the engine reports
+     * the segments in a different order than FastCollinearPoints.
+     *
+     * @param segments the segments
+     * @return their toString values, sorted
+     */
+    private static List<String> names(LineSegment[] segments) {
+        List<String> names = new ArrayList<>();
+        for (LineSegment segment : segments)
+            names.add(segment.toString());
+        Collections.sort(names);
+        return names;
+    }
+
+    public static void main(String[] args) {
+        /* Compare with FastCollinearPoints, reading the points from a mapped
+         * point column file, segment by segment */
+        String[] testFiles = {
+                "input8.txt", "equidistant.txt", "input40.txt", "input48.txt",
+                "horizontal5.txt", "vertical5.txt", "random23.txt", "input6000.txt"
+        };
+        try (OffHeapCollinearEngine engine = new OffHeapCollinearEngine()) {
+            for (int i = 0; i < testFiles.length; i++) {
+                StdOut.println(testFiles[i]);
+                try {
+                    File columns = File.createTempFile("points", ".cpts");
+                    columns.deleteOnExit();
+                    PointStore store = PointStore.of(PointFileReader.readPoints(testFiles[i]));
+                    PointColumnFile.write(columns.getPath(), store);
+
+                    SegmentBuffer lines = new SegmentBuffer();
+                    engine.find(PointColumnFile.open(columns.getPath()), lines);
+                    columns.delete();
+                    List<String> expected = names(new FastCollinearPoints(
+                            PointFileReader.readPoints(testFiles[i])).segments());
+                    List<String> found = names(lines.toLineSegments(store));
+                    StdOut.println(found.size() + " of " + expected.size() + " segments, "
+                                           + engine.offHeapBytes() + " bytes off-heap"
+                                           + (found.equals(expected) ? " PASSED!" : " FAILED!"));
+                }
+                catch (IOException ioException) {
+                    StdOut.println("Could not create a temporary file. FAILED!");
+                }
+                StdOut.println("---");
+            }
+        }
+    }
+}
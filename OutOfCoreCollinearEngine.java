@@ -0,0 +1,703 @@
+/* *****************************************************************************
+ *  Name: Willy Chang
+ *  Date: 10/18/2026
+ *  Description: OutOfCoreCollinearEngine
+ **************************************************************************** */
+
+import edu.princeton.cs.algs4.StdOut;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.function.IntUnaryOperator;
+
+public class OutOfCoreCollinearEngine implements CollinearEngine {
+    // Bytes per point in the chunk arrays: a key and an index, the radix
+    // sort buffers for them, and the coordinates of the point.
+    private static final int ENTRY_BYTES = 32;
+
+    // Most anchors served by one pass over the points, and the bytes of
+    // their coordinates. More anchors would only grow the spill file, as the
+    // pass already costs little next to sorting the keys of every anchor.
+    private static final int ANCHORS_PER_BLOCK = 16;
+    private static final int ANCHOR_BYTES = 8;
+
+    // Bytes per spilled record: key, number of points, first and last
+    // point. A record with no points ends a run.
+    private static final int RECORD_BYTES = 20;
+
+    // Largest buffer used to write or read spilled runs, and the smallest
+    // read buffer worth merging one more run at a time for.
+    private static final int IO_BUFFER_BYTES = 1 << 16;
+    private static final int MIN_READ_BYTES = 1 << 10;
+
+    // Smallest budget, which still gives chunks of 64 points.
+    private static final long MIN_BUDGET = 1 << 12;
+
+    // Insertion sort is faster than the radix sort below this size.
+    private static final int INSERTION_SORT_CUTOFF = 64;
+
+    private final long budget;
+    private final int minPoints;
+
+    // Number of points in a chunk: half of the budget goes to the chunk
+    // arrays, an eighth to the write buffer and the anchors of a block, and
+    // a quarter to the read buffers of the merge.
+    private final int capacity;
+
+    // Most runs merged at a time, so that their read buffers fit into a
+    // quarter of the budget.
+    private final int fanIn;
+
+    // Direction keys with the sign bit flipped, so that they sort as
+    // unsigned values, and the indices of their points.
+    private long[] keys;
+    private long[] keyAux;
+    private int[] indices;
+    private int[] indexAux;
+    private final int[] counts = new int[257];
+
+    // Coordinates of the points of the current chunk.
+    private int[] chunkXs;
+    private int[] chunkYs;
+
+    // Coordinates of the current call and how to compute their keys.
+    private IntUnaryOperator xs;
+    private IntUnaryOperator ys;
+    private boolean quotientKeys;
+    private long keyWidth;
+
+    // Spill file of the current call, its write buffer and where that goes
+    // in the file, the coordinates of the anchors of the current block, and
+    // the readers and heap of the merge.
+    private FileChannel spill;
+    private ByteBuffer out;
+    private long outPosition;
+    private int[] anchorXs;
+    private int[] anchorYs;
+    private Run[] readers;
+    private PriorityQueue<Run> queue;
+
+    // Chunks of the current call, and the records of one anchor in a
+    // region of the spill file (see slot).
+    private int chunks;
+    private long anchorRecords;
+
+    /**
+     * Constructor for an engine that reports the segments of 4+ points with
+     * the given memory budget.
+     *
+     * @param budget bytes of scratch memory the engine may use
+     */
+    public OutOfCoreCollinearEngine(long budget) {
+        this(budget, 4);
+    }
+
+    /**
+     * Constructor for an engine that reports the segments of at least
+     * {@code minPoints} points with the given memory budget. The budget
+     * covers the scratch memory of the engine, not the points themselves,
+     * which are either in a PointStore already or mapped from a file.
+     *
+     * @param budget bytes of scratch memory the engine may use, at least
+     * 4 KB
+     * @param minPoints smallest number of points of a reported segment, at
+     * least 2
+     */
+    public OutOfCoreCollinearEngine(long budget, int minPoints) {
+        if (budget < MIN_BUDGET)
+            throw new IllegalArgumentException("Memory budget must be at least 4 KB.");
+        if (minPoints < 2)
+            throw new IllegalArgumentException("A segment needs at least 2 points.");
+        this.budget = budget;
+        this.minPoints = minPoints;
+        this.capacity = (int) Math.min(Integer.MAX_VALUE - 8, budget / 2 / ENTRY_BYTES);
+        this.fanIn = (int) Math.max(2, Math.min(Integer.MAX_VALUE - 8,
+                                                budget / 4 / MIN_READ_BYTES));
+    }
+
+    /**
+     * Finds the segments of a store, reading the coordinates straight from
+     * the store.
+     *
+     * @param store points to process
+     * @param sink receives the segments
+     */
+    @Override
+    public void find(PointStore store, SegmentSink sink) {
+        find(store::x, store::y, store.size(), sink);
+    }
+
+    /**
+     * Finds the segments of a mapped point column file, reading the
+     * coordinates straight from the mapping.
+     *
+     * @param file points to process, written from a PointStore
+     * @param sink receives the segments
+     * @throws IllegalArgumentException if the file is not flagged as sorted
+     */
+    public void find(PointColumnFile file, SegmentSink sink) {
+        if (!file.isSorted())
+            throw new IllegalArgumentException("Points are not sorted.");
+        find(file.xs(), file.ys(), sink);
+    }
+
+    /**
+     * Finds every maximal line segment that connects at least
+     * {@code minPoints} points, given as coordinate buffers that are
+     * distinct and in ascending order (see Point.compareTo). Segments are
+     * passed to the sink as indices into the buffers.
+     *
+     * <p>The points are read in chunks that fit into the budget. For each
+     * anchor p, each chunk is sorted by direction key from p, and every run
+     * of equal keys is reduced to its key, its number of points and its
+     * first and last point. If all points fit into one chunk, they are read
+     * once and the runs are checked right away. Otherwise the anchors are
+     * taken in blocks: each pass over the chunks serves every anchor of the
+     * block, and their runs are spilled to a temporary file. The sorted runs
+     * of each anchor are then merged, at most as many at a time as the read
+     * buffers fit into a quarter of the budget, in as many passes as that
+     * takes, so the memory used does not grow with the number of points.
+     * The spill file holds up to 40 bytes per point for every anchor of a
+     * block. A line through p is a segment if it holds
+     * {@code minPoints - 1} other points and none of them is smaller than
+     * p. Horizontal and vertical lines are found by the same keys.
+     *
+     * @param xs x-coordinates of the points
+     * @param ys y-coordinates of the points
+     * @param sink receives the segments
+     * @throws IllegalArgumentException if the buffers differ in length, the
+     * points are not distinct and in ascending order, or they are too far
+     * apart for slope keys
+     * @throws UncheckedIOException if the spill file cannot be used
+     */
+    public void find(IntBuffer xs, IntBuffer ys, SegmentSink sink) {
+        if (ys.limit() != xs.limit())
+            throw new IllegalArgumentException("Coordinate arrays differ in length.");
+        find(xs::get, ys::get, xs.limit(), sink);
+    }
+
+    /**
+     * Finds the segments of {@code n} points read through the given
+     * functions, as described for the buffers.
+     *
+     * @param xs x-coordinate of each point
+     * @param ys y-coordinate of each point
+     * @param n number of points
+     * @param sink receives the segments
+     */
+    private void find(IntUnaryOperator xs, IntUnaryOperator ys, int n, SegmentSink sink) {
+        if (n == 0)
+            return;
+
+        int minX = Integer.MAX_VALUE, maxX = Integer.MIN_VALUE;
+        long previous = 0;
+        for (int i = 0; i < n; i++) {
+            int x = xs.applyAsInt(i);
+            long packed = PointStore.pack(x, ys.applyAsInt(i));
+            if (i > 0 && previous >= packed)
+                throw new IllegalArgumentException("Points are not sorted.");
+            previous = packed;
+            minX = Math.min(minX, x);
+            maxX = Math.max(maxX, x);
+        }
+        long spanX = (long) maxX - minX;
+        long spanY = (long) ys.applyAsInt(n - 1) - ys.applyAsInt(0);
+        if (!Slopes.fitsDirection(spanX, spanY))
+            throw new IllegalArgumentException("Coordinates too far apart for slope keys.");
+        quotientKeys = Slopes.fitsQuotient(spanX, spanY);
+        keyWidth = spanX + 1;
+        int anchors = n - minPoints + 1;
+        if (anchors <= 0)
+            return;
+
+        int chunk = Math.min(n, capacity);
+        if (keys == null || keys.length < chunk) {
+            keys = new long[chunk];
+            keyAux = new long[chunk];
+            indices = new int[chunk];
+            indexAux = new int[chunk];
+            chunkXs = new int[chunk];
+            chunkYs = new int[chunk];
+        }
+        this.xs = xs;
+        this.ys = ys;
+
+        Path path = null;
+        try {
+            if (n <= capacity) {
+                load(0, n);
+                for (int p = 0; p < anchors; p++)
+                    anchor(p, n, sink);
+                return;
+            }
+
+            chunks = (n - 1) / capacity + 1;
+            anchorRecords = (long) chunks * (capacity + 1);
+            int block = Math.min(anchors, ANCHORS_PER_BLOCK);
+            path = Files.createTempFile("collinear", ".runs");
+            spill = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE,
+                                     StandardOpenOption.DELETE_ON_CLOSE);
+            out = ByteBuffer.allocate(ioBufferBytes());
+            anchorXs = new int[block];
+            anchorYs = new int[block];
+            int merged = Math.min(fanIn, chunks);
+            int bytes = (int) Math.max(RECORD_BYTES, Math.min(IO_BUFFER_BYTES, budget / 4 / merged)
+                    / RECORD_BYTES * RECORD_BYTES);
+            readers = new Run[merged];
+            for (int r = 0; r < merged; r++)
+                readers[r] = new Run(bytes);
+            queue = new PriorityQueue<>(merged, (a, b) -> Long.compareUnsigned(a.key, b.key));
+            for (int from = 0; from < anchors; from += block)
+                block(from, Math.min(anchors, from + block), n, sink);
+        }
+        catch (IOException ioException) {
+            throw new UncheckedIOException("Could not use the spill file.", ioException);
+        }
+        finally {
+            close(spill, path);
+            spill = null;
+            out = null;
+            anchorXs = null;
+            anchorYs = null;
+            readers = null;
+            queue = null;
+            this.xs = null;
+            this.ys = null;
+        }
+    }
+
+    /**
+     * Adds the segments that start at {@code p} when all points are in the
+     * chunk arrays.
+     *
+     * @param p index of the anchor point
+     * @param n number of points
+     * @param sink receives the segments
+     */
+    private void anchor(int p, int n, SegmentSink sink) {
+        int m = fill(chunkXs[p], chunkYs[p], p, 0, n);
+        sort(m);
+        for (int first = 0, last = 1; first < m; last++) {
+            while (last < m && keys[last] == keys[first])
+                last++;
+            if (last - first >= minPoints - 1 && indices[first] > p)
+                sink.segment(p, indices[last - 1]);
+            first = last;
+        }
+    }
+
+    /**
+     * Adds the segments that start at the anchors in [from, to). Every chunk
+     * is read once for the whole block, and the run of each anchor is
+     * spilled to its slot. Then the runs of each anchor are merged in
+     * passes of up to {@code fanIn} runs, going back and forth between the
+     * two regions of the spill file, until one pass can report the
+     * segments.
+     *
+     * @param from first anchor of the block
+     * @param to last anchor of the block, exclusive
+     * @param n number of points
+     * @param sink receives the segments
+     */
+    private void block(int from, int to, int n, SegmentSink sink) throws IOException {
+        for (int p = from; p < to; p++) {
+            anchorXs[p - from] = xs.applyAsInt(p);
+            anchorYs[p - from] = ys.applyAsInt(p);
+        }
+
+        for (int c = 0; c < chunks; c++) {
+            int start = c * capacity;
+            int size = load(start, Math.min(n, start + capacity));
+            for (int p = from; p < to; p++) {
+                int m = fill(anchorXs[p - from], anchorYs[p - from], p, start, size);
+                sort(m);
+                outPosition = slot(0, p - from, c);
+                for (int first = 0, last = 1; first < m; last++) {
+                    while (last < m && keys[last] == keys[first])
+                        last++;
+                    write(keys[first], last - first, indices[first], indices[last - 1]);
+                    first = last;
+                }
+                endRun();
+            }
+        }
+
+        for (int p = from; p < to; p++) {
+            int region = 0;
+            long width = 1;
+            for (long runs = chunks; runs > fanIn; runs = (runs + fanIn - 1) / fanIn) {
+                for (long c = 0; c < chunks; c += width * fanIn)
+                    merge(p, p - from, region, (int) c,
+                          (int) Math.min(chunks, c + width * fanIn), (int) width, null);
+                region ^= 1;
+                width *= fanIn;
+            }
+            merge(p, p - from, region, 0, chunks, (int) width, sink);
+        }
+    }
+
+    /**
+     * Returns where the run of an anchor that starts at a chunk goes in the
+     * spill file. Every anchor of a block has room for {@code capacity + 1}
+     * records per chunk in each of two regions, so a run that covers
+     * {@code width} chunks fits into their slots, with the record that ends
+     * it, and needs no table of where it starts.
+     *
+     * @param region 0 or 1
+     * @param anchor anchor within the block
+     * @param chunk first chunk of the run
+     * @return the offset in bytes
+     */
+    private long slot(int region, int anchor, int chunk) {
+        long record = (region * ANCHORS_PER_BLOCK + anchor) * anchorRecords
+                + (long) chunk * (capacity + 1);
+        return record * RECORD_BYTES;
+    }
+
+    /**
+     * Reads the coordinates of the points in [from, to) into the chunk
+     * arrays.
+     *
+     * @param from first point of the chunk
+     * @param to last point of the chunk, exclusive
+     * @return the number of points in the chunk
+     */
+    private int load(int from, int to) {
+        for (int q = from; q < to; q++) {
+            chunkXs[q - from] = xs.applyAsInt(q);
+            chunkYs[q - from] = ys.applyAsInt(q);
+        }
+        return to - from;
+    }
+
+    /**
+     * Fills the chunk arrays with the keys from an anchor of the loaded
+     * points other than {@code p}, in ascending order, and their indices.
+     *
+     * @param px x-coordinate of the anchor point
+     * @param py y-coordinate of the anchor point
+     * @param p index of the anchor point
+     * @param from index of the first loaded point
+     * @param size number of loaded points
+     * @return the number of keys
+     */
+    private int fill(int px, int py, int p, int from, int size) {
+        int m = 0;
+        for (int i = 0; i < size; i++) {
+            if (from + i == p)
+                continue;
+            int dx = chunkXs[i] - px, dy = chunkYs[i] - py;
+            long key = quotientKeys ? Slopes.quotient(dx, dy) : Slopes.direction(dx, dy, keyWidth);
+            keys[m] = key ^ Long.MIN_VALUE;
+            indices[m] = from + i;
+            m++;
+        }
+        return m;
+    }
+
+    /**
+     * Stably sorts the first {@code n} keys as unsigned values, carrying the
+     * indices along. Uses an LSD radix sort that skips the bytes shared by
+     * all keys, and insertion sort for few keys.
+     *
+     * @param n number of keys
+     */
+    private void sort(int n) {
+        if (n < INSERTION_SORT_CUTOFF) {
+            for (int i = 1; i < n; i++) {
+                long key = keys[i];
+                int index = indices[i];
+                int j = i;
+                for (; j > 0 && Long.compareUnsigned(keys[j - 1], key) > 0; j--) {
+                    keys[j] = keys[j - 1];
+                    indices[j] = indices[j - 1];
+                }
+                keys[j] = key;
+                indices[j] = index;
+            }
+            return;
+        }
+
+        long[] from = keys, to = keyAux;
+        int[] fromIndices = indices, toIndices = indexAux;
+        for (int shift = 0; shift < 64; shift += 8) {
+            Arrays.fill(counts, 0);
+            for (int i = 0; i < n; i++)
+                counts[(int) ((from[i] >>> shift) & 0xff) + 1]++;
+            if (counts[(int) ((from[0] >>> shift) & 0xff) + 1] == n)
+                continue;
+            for (int r = 0; r < 256; r++)
+                counts[r + 1] += counts[r];
+            for (int i = 0; i < n; i++) {
+                int slot = counts[(int) ((from[i] >>> shift) & 0xff)]++;
+                to[slot] = from[i];
+                toIndices[slot] = fromIndices[i];
+            }
+            long[] keyTemp = from;
+            from = to;
+            to = keyTemp;
+            int[] indexTemp = fromIndices;
+            fromIndices = toIndices;
+            toIndices = indexTemp;
+        }
+
+        // Swap the arrays instead of copying back.
+        keys = from;
+        keyAux = to;
+        indices = fromIndices;
+        indexAux = toIndices;
+    }
+
+    /**
+     * Merges the sorted runs of {@code p} that start at the chunks from,
+     * from + width, ... below to, combining the records of equal keys. With
+     * a sink, adds the segments that start at {@code p}; otherwise writes
+     * the merged run to the slot of {@code from} in the other region.
+     *
+     * @param p index of the anchor point
+     * @param anchor anchor within the block
+     * @param region region of the runs
+     * @param from first chunk
+     * @param to last chunk, exclusive
+     * @param width number of chunks covered by each run
+     * @param sink receives the segments, or null to write a run
+     */
+    private void merge(int p, int anchor, int region, int from, int to, int width,
+                       SegmentSink sink) throws IOException {
+        long runBytes = (long) width * (capacity + 1) * RECORD_BYTES;
+        queue.clear();
+        for (int c = from, r = 0; c < to; c += width, r++) {
+            Run run = readers[r];
+            run.reset(slot(region, anchor, c), runBytes);
+            if (run.next(spill))
+                queue.add(run);
+        }
+        if (sink == null)
+            outPosition = slot(region ^ 1, anchor, from);
+
+        while (!queue.isEmpty()) {
+            Run run = queue.poll();
+            long key = run.key;
+            int count = run.count;
+            int first = run.first, last = run.last;
+            if (run.next(spill))
+                queue.add(run);
+            while (!queue.isEmpty() && queue.peek().key == key) {
+                run = queue.poll();
+                count += run.count;
+                first = Math.min(first, run.first);
+                last = Math.max(last, run.last);
+                if (run.next(spill))
+                    queue.add(run);
+            }
+            if (sink == null)
+                write(key, count, first, last);
+            else if (count >= minPoints - 1 && first > p)
+                sink.segment(p, last);
+        }
+        if (sink == null)
+            endRun();
+    }
+
+    /**
+     * Private class for reading a run back from the spill file, one record
+     * at a time. Its buffer is allocated once and reused for every run.
+     */
+    private static class Run {
+        private long position;
+        private long end;
+        private final ByteBuffer buffer;
+
+        // Current record.
+        private long key;
+        private int count;
+        private int first;
+        private int last;
+
+        /**
+         * Constructor that takes in the size of the read buffer.
+         *
+         * @param bytes size of the read buffer
+         */
+        Run(int bytes) {
+            this.buffer = ByteBuffer.allocate(bytes);
+        }
+
+        /**
+         * Starts reading a run.
+         *
+         * @param position offset of the slot of the run
+         * @param bytes size of the slot, which ends the run at the latest
+         */
+        void reset(long position, long bytes) {
+            this.position = position;
+            this.end = position + bytes;
+            buffer.clear();
+            buffer.flip();
+        }
+
+        /**
+         * Reads the next record.
+         *
+         * @param channel the spill file
+         * @return false if the run has no more records
+         */
+        boolean next(FileChannel channel) throws IOException {
+            if (!buffer.hasRemaining()) {
+                buffer.clear();
+                buffer.limit((int) Math.min(buffer.capacity(), end - position));
+                while (buffer.hasRemaining()) {
+                    int read = channel.read(buffer, position);
+                    if (read < 0)
+                        break;
+                    position += read;
+                }
+                buffer.flip();
+                if (buffer.remaining() < RECORD_BYTES)
+                    throw new IOException("Spill file is truncated.");
+            }
+            key = buffer.getLong();
+            count = buffer.getInt();
+            first = buffer.getInt();
+            last = buffer.getInt();
+            return count > 0;
+        }
+    }
+
+    /**
+     * Adds a record to the run being written.
+     *
+     * @param key the key
+     * @param count number of points with the key
+     * @param first first point with the key
+     * @param last last point with the key
+     */
+    private void write(long key, int count, int first, int last) throws IOException {
+        if (out.remaining() < RECORD_BYTES)
+            outPosition += drain(outPosition);
+        out.putLong(key).putInt(count).putInt(first).putInt(last);
+    }
+
+    /**
+     * Ends the run being written with a record of no points and writes it
+     * to the spill file.
+     */
+    private void endRun() throws IOException {
+        write(0, 0, 0, 0);
+        outPosition += drain(outPosition);
+    }
+
+    /**
+     * Returns the size of the write buffer, an eighth of the budget less
+     * the anchors of a block, but at most 64 KB.
+     *
+     * @return the size in bytes, a multiple of the record size
+     */
+    private int ioBufferBytes() {
+        long bytes = budget / 8 - ANCHORS_PER_BLOCK * ANCHOR_BYTES;
+        return (int) (Math.min(IO_BUFFER_BYTES, bytes) / RECORD_BYTES * RECORD_BYTES);
+    }
+
+    /**
+     * Writes the write buffer to the spill file and clears it.
+     *
+     * @param position offset to write at
+     * @return the number of bytes written
+     */
+    private int drain(long position) throws IOException {
+        out.flip();
+        int bytes = out.remaining();
+        while (out.hasRemaining())
+            position += spill.write(out, position);
+        out.clear();
+        return bytes;
+    }
+
+    /**
+     * Closes and deletes the spill file, if there is one.
+     *
+     * @param channel the open spill file, or null
+     * @param path path of the spill file, or null
+     */
+    private static void close(FileChannel channel, Path path) {
+        try {
+            if (channel != null)
+                channel.close();
+            if (path != null)
+                Files.deleteIfExists(path);
+        }
+        catch (IOException ioException) {
+            throw new UncheckedIOException("Could not delete the spill file.", ioException);
+        }
+    }
+
+    /**
+     * Returns the names of segments in sorted order, as the engine reports
+     * the segments in a different order than FastCollinearPoints.
+     *
+     * @param segments the segments
+     * @return their toString values, sorted
+     */
+    private static List<String> names(LineSegment[] segments) {
+        List<String> names = new ArrayList<>();
+        for (LineSegment segment : segments)
+            names.add(segment.toString());
+        Collections.sort(names);
+        return names;
+    }
+
+    public static void main(String[] args) {
+        /* Compare with FastCollinearPoints, reading the points from a mapped
+         * point column file with a 16 KB budget, so every file with more than
+         * 256 points is spilled, and with a 4 KB budget, which merges the
+         * runs of input1000.txt in four passes of two */
+        String[] testFiles = {
+                "input8.txt", "equidistant.txt", "input40.txt", "input48.txt",
+                "horizontal5.txt", "vertical5.txt", "random23.txt", "input400.txt",
+                "input1000.txt"
+        };
+        OutOfCoreCollinearEngine[] engines = {
+                new OutOfCoreCollinearEngine(1 << 14), new OutOfCoreCollinearEngine(1 << 12)
+        };
+        for (int i = 0; i < testFiles.length; i++) {
+            StdOut.println(testFiles[i]);
+            Point[] points = PointFileReader.readPoints(testFiles[i]);
+            File columns;
+            try {
+                columns = File.createTempFile("points", ".cpts");
+            }
+            catch (IOException ioException) {
+                StdOut.println("Could not create a temporary file. FAILED!");
+                continue;
+            }
+            columns.deleteOnExit();
+            PointStore store = PointStore.of(points);
+            PointColumnFile.write(columns.getPath(), store);
+            PointColumnFile file = PointColumnFile.open(columns.getPath());
+            columns.delete();
+
+            List<String> expected = names(new FastCollinearPoints(points).segments());
+            for (OutOfCoreCollinearEngine engine : engines) {
+                SegmentBuffer lines = new SegmentBuffer();
+                engine.find(file, lines);
+                List<String> found = names(lines.toLineSegments(store));
+                StdOut.println(found.size() + " of " + expected.size() + " segments with a "
+                                       + engine.budget / 1024 + " KB budget"
+                                       + (found.equals(expected) ? " PASSED!" : " FAILED!"));
+            }
+            StdOut.println("---");
+        }
+    }
+}
@@ -0,0 +1,158 @@
+/* *****************************************************************************
+ *  Name: Willy Chang
+ *  Date: 10/18/2026
+ *  Description: ParallelCollinearEngine
+ **************************************************************************** */
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class ParallelCollinearEngine implements CollinearEngine {
+    // Number of anchor blocks handed out per worker, so that workers that
+    // finish early can pick up more blocks.
+    private static final int BLOCKS_PER_WORKER = 16;
+
+    private final Executor executor;
+    private final int parallelism;
+    private final SortingCollinearEngine.Mode mode;
+    private final int minPoints;
+    private final EngineStats stats;
+
+    /**
+     * Constructor for an engine that runs on the common fork-join pool and
+     * sorts by precomputed slope keys.
+     */
+    public ParallelCollinearEngine() {
+        this(ForkJoinPool.commonPool(), ForkJoinPool.getCommonPoolParallelism(),
+             SortingCollinearEngine.Mode.SLOPE_KEYS);
+    }
+
+    /**
+     * Constructor that takes in the executor to run the workers on.
+     *
+     * @param executor executor that runs the workers
+     * @param parallelism number of workers to start
+     * @param mode how each worker orders the points by slope
+     */
+    public ParallelCollinearEngine(Executor executor, int parallelism,
+                                   SortingCollinearEngine.Mode mode) {
+        this(executor, parallelism, mode, null);
+    }
+
+    /**
+     * Constructor that takes in the executor to run the workers on and the
+     * statistics to record into. Every worker records into its own stats,
+     * which are added to {@code stats} once all workers are done, so phase
+     * times are summed over the workers.
+     *
+     * @param executor executor that runs the workers
+     * @param parallelism number of workers to start
+     * @param mode how each worker orders the points by slope
+     * @param stats statistics to record into, or null
+     */
+    public ParallelCollinearEngine(Executor executor, int parallelism,
+                                   SortingCollinearEngine.Mode mode, EngineStats stats) {
+        this(executor, parallelism, mode, 4, stats);
+    }
+
+    /**
+     * Constructor that takes in the executor to run the workers on, the
+     * smallest number of points of a reported segment and the statistics to
+     * record into.
+     *
+     * @param executor executor that runs the workers
+     * @param parallelism number of workers to start
+     * @param mode how each worker orders the points by slope
+     * @param minPoints smallest number of points of a reported segment, at
+     * least 2
+     * @param stats statistics to record into, or null
+     */
+    public ParallelCollinearEngine(Executor executor, int parallelism,
+                                   SortingCollinearEngine.Mode mode, int minPoints,
+                                   EngineStats stats) {
+        if (executor == null || mode == null)
+            throw new IllegalArgumentException("No executor or mode given.");
+        if (parallelism < 1)
+            throw new IllegalArgumentException("Parallelism must be positive.");
+        if (minPoints < 2)
+            throw new IllegalArgumentException("A segment needs at least 2 points.");
+        this.executor = executor;
+        this.parallelism = parallelism;
+        this.mode = mode;
+        this.minPoints = minPoints;
+        this.stats = stats;
+    }
+
+    /**
+     * Finds every maximal line segment that connects at least
+     * {@code minPoints} points of the store.
+     * Horizontal and vertical segments are found first by AxisAlignedPass.
+     * The anchors are split into blocks that the workers
+     * claim one at a time. Each worker has its own
+     * {@code SortingCollinearEngine}, so scratch arrays and segment buffers
+     * are never shared. The segments of the blocks are passed to the sink in
+     * block order, which gives the same result as a single
+     * {@code SortingCollinearEngine}.
+     *
+     * @param store points to process
+     * @param sink receives the segments
+     */
+    @Override
+    public void find(PointStore store, SegmentSink sink) {
+        if (mode == SortingCollinearEngine.Mode.SLOPE_KEYS && !store.fitsDirectionKeys())
+            throw new IllegalArgumentException("Coordinates too far apart for slope keys.");
+        int anchors = Math.max(0, store.size() - minPoints + 1);
+        EngineStats.ScanEvent event = stats == null ? null : stats.begin("parallel", store.size());
+
+        int blockSize = Math.max(1, anchors / (parallelism * BLOCKS_PER_WORKER));
+        int blocks = (anchors + blockSize - 1) / blockSize;
+        SegmentBuffer[] results = new SegmentBuffer[blocks];
+        AtomicInteger next = new AtomicInteger();
+
+        int workers = Math.min(parallelism, blocks);
+        CompletableFuture<?>[] futures = new CompletableFuture<?>[workers];
+        EngineStats[] workerStats = new EngineStats[workers];
+        for (int w = 0; w < workers; w++) {
+            EngineStats own = stats == null ? null : new EngineStats();
+            workerStats[w] = own;
+            futures[w] = CompletableFuture.runAsync(() -> {
+                SortingCollinearEngine engine = new SortingCollinearEngine(mode, minPoints, own);
+                for (int b = next.getAndIncrement(); b < blocks; b = next.getAndIncrement()) {
+                    int from = b * blockSize;
+                    int to = Math.min(anchors, from + blockSize);
+                    results[b] = new SegmentBuffer();
+                    engine.find(store, from, to, results[b]);
+                }
+            }, executor);
+        }
+
+        try {
+            CompletableFuture.allOf(futures).join();
+        }
+        catch (CompletionException completionException) {
+            Throwable cause = completionException.getCause();
+            if (cause instanceof RuntimeException)
+                throw (RuntimeException) cause;
+            if (cause instanceof Error)
+                throw (Error) cause;
+            throw completionException;
+        }
+
+        if (stats == null) {
+            AxisAlignedPass.find(store, minPoints, sink);
+            for (SegmentBuffer result : results)
+                result.replay(sink);
+            return;
+        }
+        for (EngineStats own : workerStats)
+            stats.add(own);
+        SegmentSink counting = stats.counting(sink);
+        stats.axis(store, minPoints, counting);
+        for (SegmentBuffer result : results)
+            result.replay(counting);
+        stats.end(event);
+    }
+}
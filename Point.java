@@ -1,7 +1,7 @@
 /******************************************************************************
  *  Compilation:  javac Point.java
  *  Execution:    java Point
- *  Dependencies: none
+ *  Dependencies: Slopes.java
  *
  *  An immutable data type for points in the plane.
  *  For use on Coursera, Algorithms Part I programming assignment.
@@ -30,6 +30,24 @@ public class Point implements Comparable<Point> {
         this.y = y;
     }
 
+    /**
+     * Returns the x-coordinate of this point.
+     *
+     * @return the <em>x</em>-coordinate of this point
+     */
+    int x() {
+        return x;
+    }
+
+    /**
+     * Returns the y-coordinate of this point.
+     *
+     * @return the <em>y</em>-coordinate of this point
+     */
+    int y() {
+        return y;
+    }
+
     /**
      * Draws this point to standard draw.
      */
@@ -67,7 +85,7 @@ public class Point implements Comparable<Point> {
         if ((this.x == that.x) && (this.y == that.y))
             return Double.NEGATIVE_INFINITY;
 
-        double bot = this.x - that.x;
+        double bot = (long) this.x - that.x;
 
         if (bot == 0)
             return Double.POSITIVE_INFINITY;
@@ -75,7 +93,7 @@ public class Point implements Comparable<Point> {
         if (this.y == that.y)
             return +0.0;
 
-        return (double) (this.y - that.y) / bot;
+        return (double) ((long) this.y - that.y) / bot;
     }
 
     /**
@@ -102,7 +120,8 @@ public class Point implements Comparable<Point> {
 
     /**
      * Compares two points by the slope they make with this point.
-     * The slope is defined as in the slopeTo() method.
+     * The slope is defined as in the slopeTo() method, but is compared
+     * exactly with integer cross products instead of by division.
      *
      * @return the Comparator that defines this ordering on points
      */
@@ -124,7 +143,10 @@ public class Point implements Comparable<Point> {
          */
         @Override
         public int compare(Point p1, Point p2) {
-            return Double.compare(slopeTo(p1), slopeTo(p2));
+            if (p1 == null || p2 == null)
+                throw new NullPointerException();
+            return Slopes.compare((long) p1.x - x, (long) p1.y - y,
+                                  (long) p2.x - x, (long) p2.y - y);
         }
     }
 
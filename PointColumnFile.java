@@ -0,0 +1,297 @@
+/* *****************************************************************************
+ *  Name: Willy Chang
+ *  Date: 10/18/2026
+ *  Description: PointColumnFile
+ **************************************************************************** */
+
+import edu.princeton.cs.algs4.StdOut;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.function.IntUnaryOperator;
+
+public final class PointColumnFile {
+    /*
+     * File layout, all little-endian:
+     *
+     *   offset 0        magic "CPTS"
+     *   offset 4        int32 version, currently 1
+     *   offset 8        int32 flags, bit 0 set if the points are distinct
+     *                   and in ascending order (see Point.compareTo)
+     *   offset 12       int32 number of points n
+     *   offset 16       n int32 x-coordinates
+     *   offset 16 + 4n  n int32 y-coordinates
+     *
+     * Each column is mapped into one buffer, and a buffer holds at most
+     * Integer.MAX_VALUE bytes, so a file holds at most MAX_POINTS points.
+     */
+    private static final int MAGIC = 'C' | 'P' << 8 | 'T' << 16 | 'S' << 24;
+    private static final int VERSION = 1;
+    private static final int SORTED = 1;
+    private static final int HEADER_BYTES = 16;
+    static final int MAX_POINTS = Integer.MAX_VALUE / Integer.BYTES;
+
+    // Mapped columns and whether they hold the points of a store.
+    private final IntBuffer xs;
+    private final IntBuffer ys;
+    private final boolean sorted;
+
+    /**
+     * Constructor that takes in the mapped columns.
+     *
+     * @param xs x-coordinates of the points
+     * @param ys y-coordinates of the points
+     * @param sorted whether the points are distinct and in ascending order
+     */
+    private PointColumnFile(IntBuffer xs, IntBuffer ys, boolean sorted) {
+        this.xs = xs;
+        this.ys = ys;
+        this.sorted = sorted;
+    }
+
+    /**
+     * Maps a point column file. The columns are read through the mapping
+     * when they are accessed, nothing is copied.
+     *
+     * @param path path of the file
+     * @return the mapped file
+     * @throws IllegalArgumentException if the file cannot be read or is not
+     * a point column file
+     */
+    public static PointColumnFile open(String path) {
+        try (FileChannel channel = FileChannel.open(Paths.get(path), StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_BYTES)
+                throw new IllegalArgumentException("Not a point column file: " + path + ".");
+            ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_BYTES)
+                                       .order(ByteOrder.LITTLE_ENDIAN);
+            if (header.getInt(0) != MAGIC)
+                throw new IllegalArgumentException("Not a point column file: " + path + ".");
+            if (header.getInt(4) != VERSION)
+                throw new IllegalArgumentException("Unsupported version in " + path + ".");
+            int n = header.getInt(12);
+            if (n < 0 || size != HEADER_BYTES + 8L * n)
+                throw new IllegalArgumentException("Truncated point column file: " + path + ".");
+
+            if (n > MAX_POINTS)
+                throw new IllegalArgumentException("Too many points in " + path + ".");
+
+            // Map each column on its own, which keeps every mapping under
+            // the 2 GB limit of a ByteBuffer up to MAX_POINTS points.
+            long column = 4L * n;
+            IntBuffer xs = channel.map(FileChannel.MapMode.READ_ONLY, HEADER_BYTES, column)
+                                  .order(ByteOrder.LITTLE_ENDIAN).asIntBuffer();
+            IntBuffer ys = channel.map(FileChannel.MapMode.READ_ONLY, HEADER_BYTES + column,
+                                       column)
+                                  .order(ByteOrder.LITTLE_ENDIAN).asIntBuffer();
+            return new PointColumnFile(xs, ys, (header.getInt(8) & SORTED) != 0);
+        }
+        catch (IOException ioException) {
+            throw new IllegalArgumentException("Could not read " + path + ".", ioException);
+        }
+    }
+
+    /**
+     * Writes the points of a store to a point column file, flagged as sorted
+     * so that reading them back does not sort them again.
+     *
+     * @param path path of the file
+     * @param store the points to write
+     * @throws IllegalArgumentException if the store has more than
+     * MAX_POINTS points, or if the file cannot be written
+     */
+    public static void write(String path, PointStore store) {
+        write(path, store.size(), store::x, store::y, true);
+    }
+
+    /**
+     * Writes coordinate arrays to a point column file, in the given order.
+     *
+     * @param path path of the file
+     * @param xs x-coordinates of the points
+     * @param ys y-coordinates of the points
+     * @param sorted whether the points are distinct and in ascending order
+     * @throws IllegalArgumentException if the arrays differ in length or
+     * hold more than MAX_POINTS points, or if the file cannot be written
+     */
+    public static void write(String path, int[] xs, int[] ys, boolean sorted) {
+        if (xs.length != ys.length)
+            throw new IllegalArgumentException("Coordinate arrays differ in length.");
+        write(path, xs.length, i -> xs[i], i -> ys[i], sorted);
+    }
+
+    /**
+     * Writes the columns of n points to a point column file, reading every
+     * coordinate once from its source.
+     *
+     * @param path path of the file
+     * @param n number of points
+     * @param xs x-coordinate of each index
+     * @param ys y-coordinate of each index
+     * @param sorted whether the points are distinct and in ascending order
+     * @throws IllegalArgumentException if there are more than MAX_POINTS
+     * points, or if the file cannot be written
+     */
+    private static void write(String path, int n, IntUnaryOperator xs, IntUnaryOperator ys,
+                              boolean sorted) {
+        if (n > MAX_POINTS)
+            throw new IllegalArgumentException("Too many points for a point column file.");
+        try (FileChannel channel = FileChannel.open(Paths.get(path), StandardOpenOption.CREATE,
+                                                    StandardOpenOption.TRUNCATE_EXISTING,
+                                                    StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(1 << 16).order(ByteOrder.LITTLE_ENDIAN);
+            buffer.putInt(MAGIC).putInt(VERSION).putInt(sorted ? SORTED : 0).putInt(n);
+            for (IntUnaryOperator column : new IntUnaryOperator[] { xs, ys }) {
+                for (int i = 0; i < n; i++) {
+                    if (!buffer.hasRemaining())
+                        drain(channel, buffer);
+                    buffer.putInt(column.applyAsInt(i));
+                }
+            }
+            drain(channel, buffer);
+        }
+        catch (IOException ioException) {
+            throw new IllegalArgumentException("Could not write " + path + ".", ioException);
+        }
+    }
+
+    /**
+     * Writes the contents of a buffer to a channel and clears the buffer.
+     *
+     * @param channel the channel to write to
+     * @param buffer the buffer to drain
+     */
+    private static void drain(FileChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining())
+            channel.write(buffer);
+        buffer.clear();
+    }
+
+    /**
+     * Return the number of points in the file.
+     *
+     * @return the number of points
+     */
+    public int size() {
+        return xs.limit();
+    }
+
+    /**
+     * Returns whether the points are distinct and in ascending order, as
+     * written from a PointStore.
+     *
+     * @return true if the sorted flag is set
+     */
+    public boolean isSorted() {
+        return sorted;
+    }
+
+    /**
+     * Return the x-coordinate of the i-th point, read from the mapping.
+     *
+     * @param i index of the point
+     * @return the <em>x</em>-coordinate of the point
+     */
+    public int x(int i) {
+        return xs.get(i);
+    }
+
+    /**
+     * Return the y-coordinate of the i-th point, read from the mapping.
+     *
+     * @param i index of the point
+     * @return the <em>y</em>-coordinate of the point
+     */
+    public int y(int i) {
+        return ys.get(i);
+    }
+
+    /**
+     * Returns a read-only view of the mapped x-column.
+     *
+     * @return the x-coordinates of the points
+     */
+    public IntBuffer xs() {
+        return xs.asReadOnlyBuffer();
+    }
+
+    /**
+     * Returns a read-only view of the mapped y-column.
+     *
+     * @return the y-coordinates of the points
+     */
+    public IntBuffer ys() {
+        return ys.asReadOnlyBuffer();
+    }
+
+    /**
+     * Builds a store from the file. The engines index plain int arrays on
+     * their hot paths, so the columns are copied once in bulk. If the file is
+     * flagged as sorted, the order is only checked, not sorted again.
+     *
+     * @param mergeDuplicates whether to merge equal points of an unsorted
+     * file
+     * @return a store holding the points of the file
+     * @throws IllegalArgumentException if a sorted file is not in order, or
+     * if an unsorted file has duplicates that are not merged
+     */
+    public PointStore toStore(boolean mergeDuplicates) {
+        int[] x = new int[size()];
+        int[] y = new int[size()];
+        xs().get(x);
+        ys().get(y);
+        return sorted ? PointStore.ofSorted(x, y) : PointStore.of(x, y, mergeDuplicates);
+    }
+
+    /**
+     * Reads a point column file into a store.
+     *
+     * @param path path of the file
+     * @return a store holding the points of the file
+     */
+    public static PointStore readStore(String path) {
+        return open(path).toStore(false);
+    }
+
+    public static void main(String[] args) {
+        /* Convert a text point file: PointColumnFile input.txt output.bin */
+        if (args.length == 2) {
+            PointStore store = PointFileReader.readStore(args[0]);
+            write(args[1], store);
+            StdOut.println("Wrote " + store.size() + " points to " + args[1]);
+        }
+        /* Round trip the test files through a temporary file */
+        else {
+            String[] testFiles = {
+                    "input8.txt", "equidistant.txt", "input40.txt", "input48.txt",
+                    "horizontal5.txt", "vertical5.txt", "random23.txt", "input6000.txt"
+            };
+            for (int i = 0; i < testFiles.length; i++) {
+                StdOut.println(testFiles[i]);
+                try {
+                    File file = File.createTempFile("points", ".bin");
+                    file.deleteOnExit();
+                    PointStore store = PointFileReader.readStore(testFiles[i]);
+                    write(file.getPath(), store);
+                    PointStore read = readStore(file.getPath());
+                    boolean same = read.size() == store.size();
+                    for (int j = 0; same && j < store.size(); j++)
+                        same = read.x(j) == store.x(j) && read.y(j) == store.y(j);
+                    StdOut.println("Round trip of " + store.size() + " points"
+                                           + (same ? " PASSED!" : " FAILED!"));
+                }
+                catch (IOException ioException) {
+                    StdOut.println("Could not create a temporary file. FAILED!");
+                }
+                StdOut.println("---");
+            }
+        }
+    }
+}
@@ -0,0 +1,300 @@
+/* *****************************************************************************
+ *  Name: Willy Chang
+ *  Date: 10/18/2026
+ *  Description: PointFileReader
+ **************************************************************************** */
+
+import edu.princeton.cs.algs4.StdOut;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.stream.IntStream;
+
+public final class PointFileReader {
+    // Files up to this size are parsed in one pass on the calling thread.
+    private static final long PARALLEL_THRESHOLD = 8L << 20;
+
+    // Size of the byte ranges that larger files are split into.
+    private static final long CHUNK_SIZE = 16L << 20;
+
+    /**
+     * Private constructor, this class only has static methods.
+     */
+    private PointFileReader() {
+    }
+
+    /**
+     * Reads a point file (the number of points, then an x and a y coordinate
+     * per point, separated by whitespace) into a validated store.
+     *
+     * @param path path of the point file
+     * @return a store holding the points of the file
+     * @throws IllegalArgumentException if the file is malformed or has
+     * duplicate points
+     */
+    public static PointStore readStore(String path) {
+        return readStore(path, false);
+    }
+
+    /**
+     * Reads a point file into a validated store.
+     *
+     * @param path path of the point file
+     * @param mergeDuplicates whether to merge equal points
+     * @return a store holding the points of the file
+     * @throws IllegalArgumentException if the file is malformed, or has
+     * duplicate points and duplicates are not merged
+     */
+    public static PointStore readStore(String path, boolean mergeDuplicates) {
+        int[][] coordinates = read(path);
+        return PointStore.of(coordinates[0], coordinates[1], mergeDuplicates);
+    }
+
+    /**
+     * Reads a point file into an array of Points, in file order.
+     *
+     * @param path path of the point file
+     * @return the points of the file
+     * @throws IllegalArgumentException if the file is malformed
+     */
+    public static Point[] readPoints(String path) {
+        int[][] coordinates = read(path);
+        Point[] points = new Point[coordinates[0].length];
+        for (int i = 0; i < points.length; i++)
+            points[i] = new Point(coordinates[0][i], coordinates[1][i]);
+        return points;
+    }
+
+    /**
+     * Reads a point file into coordinate arrays, in file order. The file is
+     * memory-mapped and parsed byte by byte, without creating a String per
+     * token. Large files are split into byte ranges that end at whitespace.
+     * The tokens of every range are counted in parallel, which tells each
+     * range where its first coordinate goes, and then the ranges are parsed
+     * in parallel.
+     *
+     * @param path path of the point file
+     * @return the x-coordinates and the y-coordinates of the points
+     * @throws IllegalArgumentException if the file is malformed
+     */
+    static int[][] read(String path) {
+        try (FileChannel channel = FileChannel.open(Paths.get(path), StandardOpenOption.READ)) {
+            long size = channel.size();
+
+            // Parse the number of points from the start of the file.
+            MappedByteBuffer head = channel.map(FileChannel.MapMode.READ_ONLY, 0,
+                                                Math.min(size, 4096));
+            Parser parser = new Parser(head);
+            if (!parser.hasNext())
+                throw new IllegalArgumentException("No point count in " + path + ".");
+            int n = parser.next();
+            if (n < 0)
+                throw new IllegalArgumentException("Negative point count in " + path + ".");
+            long start = parser.position();
+
+            // Every coordinate takes a digit and the whitespace before it,
+            // so a count that the rest of the file cannot hold is rejected
+            // before the arrays are sized from it.
+            if (4L * n > size - start + 1)
+                throw new IllegalArgumentException(
+                        "Expected " + 2L * n + " coordinates in " + path + ".");
+
+            int[] xs = new int[n];
+            int[] ys = new int[n];
+            long[] bounds = split(channel, start, size);
+            int chunks = bounds.length - 1;
+
+            // Count the tokens of every range, then parse every range into
+            // the coordinates it starts at.
+            long[] firstToken = new long[chunks + 1];
+            if (chunks == 1) {
+                firstToken[1] = 2L * n;
+            }
+            else {
+                long[] counts = new long[chunks];
+                IntStream.range(0, chunks).parallel().forEach(
+                        c -> counts[c] = new Parser(map(channel, bounds[c], bounds[c + 1])).count());
+                for (int c = 0; c < chunks; c++)
+                    firstToken[c + 1] = firstToken[c] + counts[c];
+                if (firstToken[chunks] != 2L * n)
+                    throw new IllegalArgumentException(
+                            "Expected " + 2L * n + " coordinates in " + path + ".");
+            }
+            IntStream.range(0, chunks).parallel().forEach(c -> {
+                Parser chunk = new Parser(map(channel, bounds[c], bounds[c + 1]));
+                long token = firstToken[c];
+                for (; token < firstToken[c + 1] && chunk.hasNext(); token++) {
+                    if ((token & 1) == 0)
+                        xs[(int) (token >>> 1)] = chunk.next();
+                    else
+                        ys[(int) (token >>> 1)] = chunk.next();
+                }
+                if (token != firstToken[c + 1] || chunk.hasNext())
+                    throw new IllegalArgumentException(
+                            "Expected " + 2L * n + " coordinates in " + path + ".");
+            });
+            return new int[][] { xs, ys };
+        }
+        catch (IOException ioException) {
+            throw new IllegalArgumentException("Could not read " + path + ".", ioException);
+        }
+    }
+
+    /**
+     * Splits the byte range {@code [start, size)} into ranges of about
+     * CHUNK_SIZE bytes, moving every inner bound forward to whitespace so
+     * that no token is cut in two.
+     *
+     * @param channel the file
+     * @param start first byte of the range
+     * @param size end of the range
+     * @return the bounds of the ranges, from start to size
+     */
+    private static long[] split(FileChannel channel, long start, long size) throws IOException {
+        if (size - start <= PARALLEL_THRESHOLD)
+            return new long[] { start, size };
+
+        int chunks = (int) ((size - start + CHUNK_SIZE - 1) / CHUNK_SIZE);
+        long[] bounds = new long[chunks + 1];
+        bounds[0] = start;
+        ByteBuffer probe = ByteBuffer.allocate(64);
+        for (int c = 1; c < chunks; c++) {
+            long bound = Math.max(bounds[c - 1], start + c * CHUNK_SIZE);
+            search:
+            while (bound < size) {
+                probe.clear();
+                int read = channel.read(probe, bound);
+                for (int i = 0; i < read; i++, bound++) {
+                    if (probe.get(i) <= ' ')
+                        break search;
+                }
+            }
+            bounds[c] = bound;
+        }
+        bounds[chunks] = size;
+        return bounds;
+    }
+
+    /**
+     * Maps a byte range of the file.
+     *
+     * @param channel the file
+     * @param from first byte, inclusive
+     * @param to last byte, exclusive
+     * @return the mapped range
+     */
+    private static MappedByteBuffer map(FileChannel channel, long from, long to) {
+        try {
+            return channel.map(FileChannel.MapMode.READ_ONLY, from, to - from);
+        }
+        catch (IOException ioException) {
+            throw new UncheckedIOException(ioException);
+        }
+    }
+
+    /**
+     * Private class that parses whitespace-separated ints from a buffer.
+     */
+    private static class Parser {
+        private final ByteBuffer buffer;
+        private int at;
+
+        /**
+         * Constructor that takes in the buffer to parse.
+         *
+         * @param buffer bytes to parse, from position 0 to the limit
+         */
+        Parser(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        /**
+         * Skips whitespace and returns whether another token follows.
+         *
+         * @return true if there is another token
+         */
+        boolean hasNext() {
+            int limit = buffer.limit();
+            while (at < limit && buffer.get(at) <= ' ')
+                at++;
+            return at < limit;
+        }
+
+        /**
+         * Parses the next token as an int.
+         *
+         * @return the value of the token
+         * @throws IllegalArgumentException if the token is not an int
+         */
+        int next() {
+            hasNext();
+            int limit = buffer.limit();
+            boolean negative = at < limit && buffer.get(at) == '-';
+            if (negative)
+                at++;
+            int digits = 0;
+            long value = 0;
+            for (; at < limit; at++, digits++) {
+                byte b = buffer.get(at);
+                if (b <= ' ')
+                    break;
+                if (b < '0' || b > '9')
+                    throw new IllegalArgumentException("Unexpected character '" + (char) b + "'.");
+                value = 10 * value + (b - '0');
+                if (value > 1L + Integer.MAX_VALUE)
+                    throw new IllegalArgumentException("Coordinate out of range.");
+            }
+            if (digits == 0)
+                throw new IllegalArgumentException("Missing digits.");
+            value = negative ? -value : value;
+            if (value > Integer.MAX_VALUE)
+                throw new IllegalArgumentException("Coordinate out of range.");
+            return (int) value;
+        }
+
+        /**
+         * Counts the remaining tokens without parsing them.
+         *
+         * @return the number of tokens
+         */
+        long count() {
+            long tokens = 0;
+            int limit = buffer.limit();
+            boolean inToken = false;
+            for (; at < limit; at++) {
+                boolean space = buffer.get(at) <= ' ';
+                if (!space && !inToken)
+                    tokens++;
+                inToken = !space;
+            }
+            return tokens;
+        }
+
+        /**
+         * Return the position of the parser in the buffer.
+         *
+         * @return the index of the next byte to parse
+         */
+        long position() {
+            return at;
+        }
+    }
+
+    /**
+     * Reads the point files given as arguments and prints how long it took.
+     */
+    public static void main(String[] args) {
+        for (String path : args) {
+            long start = System.nanoTime();
+            PointStore store = readStore(path);
+            long elapsed = System.nanoTime() - start;
+            StdOut.println(path + ": " + store.size() + " points in "
+                                   + elapsed / 1000000 + " ms");
+        }
+    }
+}
@@ -0,0 +1,366 @@
+/* *****************************************************************************
+ *  Name: Willy Chang
+ *  Date: 10/18/2026
+ *  Description: PointStore
+ **************************************************************************** */
+
+import java.util.Arrays;
+
+public class PointStore {
+    // Coordinates of the points in ascending order (see Points.compareTo),
+    // kept in two parallel primitive arrays. Only the first size entries are
+    // used; the arrays of a store that is reloaded (see load) can be longer.
+    private int[] xs;
+    private int[] ys;
+    private int size;
+
+    // How many input points were merged into each point, or null if the
+    // input had no duplicates.
+    private int[] multiplicity;
+
+    // Whether every pairwise direction fits into a direction key, whether
+    // the cheaper quotient keys are exact, and the bound on the x-components
+    // of the directions.
+    private boolean fitsDirectionKeys;
+    private boolean quotientKeys;
+    private long keyWidth;
+
+    /**
+     * Constructor that takes in the coordinate arrays of distinct points in
+     * ascending order. The arrays are used as is, so callers must not modify
+     * them afterwards.
+     *
+     * @param xs x-coordinates of the points
+     * @param ys y-coordinates of the points
+     * @param multiplicity number of input points per point, or null
+     */
+    private PointStore(int[] xs, int[] ys, int[] multiplicity) {
+        this.xs = xs;
+        this.ys = ys;
+        this.size = xs.length;
+        this.multiplicity = multiplicity;
+        measure();
+    }
+
+    /**
+     * Constructor for an empty store that is filled by load.
+     */
+    PointStore() {
+        this(new int[0], new int[0], null);
+    }
+
+    /**
+     * Computes the key bounds from the spans of the coordinates.
+     */
+    private void measure() {
+        int minX = Integer.MAX_VALUE, maxX = Integer.MIN_VALUE;
+        for (int i = 0; i < size; i++) {
+            minX = Math.min(minX, xs[i]);
+            maxX = Math.max(maxX, xs[i]);
+        }
+        long spanX = size == 0 ? 0 : (long) maxX - minX;
+        long spanY = size == 0 ? 0 : (long) ys[size - 1] - ys[0];
+        this.fitsDirectionKeys = Slopes.fitsDirection(spanX, spanY);
+        this.quotientKeys = Slopes.fitsQuotient(spanX, spanY);
+        this.keyWidth = spanX + 1;
+    }
+
+    /**
+     * Replaces the points of the store with distinct packed points in
+     * ascending order (see pack). The coordinate arrays are reused, and only
+     * grow when there are more points than ever before, so reloading a store
+     * does not allocate once it is large enough. Only for stores that belong
+     * to one caller, such as the store of a CollinearSolver: the store must
+     * not be in use by an engine while it is loaded.
+     *
+     * @param keys distinct packed points in ascending order
+     * @param n number of points in {@code keys}
+     */
+    void load(long[] keys, int n) {
+        if (xs.length < n) {
+            int capacity = Math.max(n, 2 * xs.length);
+            xs = new int[capacity];
+            ys = new int[capacity];
+        }
+        for (int i = 0; i < n; i++) {
+            xs[i] = unpackX(keys[i]);
+            ys[i] = unpackY(keys[i]);
+        }
+        size = n;
+        multiplicity = null;
+        measure();
+    }
+
+    /**
+     * Validates an array of Points and copies their coordinates into a new
+     * store, in ascending order (see Points.compareTo).
+     *
+     * @param points array of Points
+     * @return a store holding the coordinates of {@code points}
+     * @throws IllegalArgumentException if a point is null or if two points
+     * are equal
+     */
+    public static PointStore of(Point[] points) {
+        return of(points, false);
+    }
+
+    /**
+     * Validates an array of Points and copies their coordinates into a new
+     * store, in ascending order (see Points.compareTo). The points are packed
+     * into longs that sort in the same order and sorted once, which finds
+     * duplicates in O(n log n) time. The sorted points are what the engines
+     * work on, so the sort is not repeated.
+     *
+     * @param points array of Points
+     * @param mergeDuplicates whether to merge equal points into one point
+     * with a multiplicity, instead of throwing
+     * @return a store holding the coordinates of {@code points}
+     * @throws IllegalArgumentException if a point is null, or if two points
+     * are equal and duplicates are not merged
+     */
+    public static PointStore of(Point[] points, boolean mergeDuplicates) {
+        long[] keys = new long[points.length];
+        for (int i = 0; i < points.length; i++) {
+            if (points[i] == null)
+                throw new IllegalArgumentException("Point is null.");
+            keys[i] = pack(points[i].x(), points[i].y());
+        }
+        return sorted(keys, mergeDuplicates);
+    }
+
+    /**
+     * Validates coordinate arrays and copies them into a new store, in
+     * ascending order (see Points.compareTo).
+     *
+     * @param xs x-coordinates of the points
+     * @param ys y-coordinates of the points
+     * @param mergeDuplicates whether to merge equal points into one point
+     * with a multiplicity, instead of throwing
+     * @return a store holding the points
+     * @throws IllegalArgumentException if the arrays differ in length, or if
+     * two points are equal and duplicates are not merged
+     */
+    public static PointStore of(int[] xs, int[] ys, boolean mergeDuplicates) {
+        if (xs.length != ys.length)
+            throw new IllegalArgumentException("Coordinate arrays differ in length.");
+        long[] keys = new long[xs.length];
+        for (int i = 0; i < xs.length; i++)
+            keys[i] = pack(xs[i], ys[i]);
+        return sorted(keys, mergeDuplicates);
+    }
+
+    /**
+     * Builds a store from coordinate arrays that are already in ascending
+     * order, e.g. read from a file that was written from a store. Checks the
+     * order in one linear pass instead of sorting.
+     *
+     * @param xs x-coordinates of the points, used as is
+     * @param ys y-coordinates of the points, used as is
+     * @return a store holding the points
+     * @throws IllegalArgumentException if the arrays differ in length, or if
+     * the points are not distinct and in ascending order
+     */
+    static PointStore ofSorted(int[] xs, int[] ys) {
+        if (xs.length != ys.length)
+            throw new IllegalArgumentException("Coordinate arrays differ in length.");
+        for (int i = 1; i < xs.length; i++) {
+            if (pack(xs[i - 1], ys[i - 1]) >= pack(xs[i], ys[i]))
+                throw new IllegalArgumentException("Points are not sorted.");
+        }
+        return new PointStore(xs, ys, null);
+    }
+
+    /**
+     * Sorts packed points and builds a store from them, merging or rejecting
+     * equal neighbours.
+     *
+     * @param keys packed points, sorted in place
+     * @param mergeDuplicates whether to merge equal points
+     * @return a store holding the points
+     */
+    private static PointStore sorted(long[] keys, boolean mergeDuplicates) {
+        Arrays.sort(keys);
+
+        int distinct = 0;
+        for (int i = 0; i < keys.length; i++) {
+            if (i > 0 && keys[i] == keys[i - 1]) {
+                if (!mergeDuplicates)
+                    throw new IllegalArgumentException("Duplicate points found.");
+                continue;
+            }
+            distinct++;
+        }
+
+        int[] xs = new int[distinct];
+        int[] ys = new int[distinct];
+        int[] multiplicity = distinct < keys.length ? new int[distinct] : null;
+        for (int i = 0, d = -1; i < keys.length; i++) {
+            if (i == 0 || keys[i] != keys[i - 1]) {
+                d++;
+                xs[d] = unpackX(keys[i]);
+                ys[d] = unpackY(keys[i]);
+            }
+            if (multiplicity != null)
+                multiplicity[d]++;
+        }
+        return new PointStore(xs, ys, multiplicity);
+    }
+
+    /**
+     * Packs a point into a long whose signed order is the order of
+     * Point.compareTo: y in the upper half, and x with its sign bit flipped
+     * in the lower half.
+     *
+     * @param x x-coordinate of the point
+     * @param y y-coordinate of the point
+     * @return the packed point
+     */
+    static long pack(int x, int y) {
+        return ((long) y << 32) | ((x ^ Integer.MIN_VALUE) & 0xffffffffL);
+    }
+
+    /**
+     * Returns the x-coordinate of a packed point.
+     *
+     * @param key packed point
+     * @return the <em>x</em>-coordinate of the point
+     */
+    static int unpackX(long key) {
+        return (int) key ^ Integer.MIN_VALUE;
+    }
+
+    /**
+     * Returns the y-coordinate of a packed point.
+     *
+     * @param key packed point
+     * @return the <em>y</em>-coordinate of the point
+     */
+    static int unpackY(long key) {
+        return (int) (key >> 32);
+    }
+
+    /**
+     * Return the number of points in the store.
+     *
+     * @return the number of points
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Return the x-coordinate of the i-th point.
+     *
+     * @param i index of the point
+     * @return the <em>x</em>-coordinate of the point
+     */
+    public int x(int i) {
+        return xs[i];
+    }
+
+    /**
+     * Return the y-coordinate of the i-th point.
+     *
+     * @param i index of the point
+     * @return the <em>y</em>-coordinate of the point
+     */
+    public int y(int i) {
+        return ys[i];
+    }
+
+    /**
+     * Return how many input points were merged into the i-th point.
+     *
+     * @param i index of the point
+     * @return the multiplicity of the point, 1 unless duplicates were merged
+     */
+    public int multiplicity(int i) {
+        return multiplicity == null ? 1 : multiplicity[i];
+    }
+
+    /**
+     * Creates a Point for the i-th point of the store. Only used at the API
+     * edge, e.g. to build {@code LineSegment}s.
+     *
+     * @param i index of the point
+     * @return a new Point with the coordinates of the i-th point
+     */
+    public Point point(int i) {
+        return new Point(xs[i], ys[i]);
+    }
+
+    /**
+     * Compares the i-th and j-th points by y-coordinate, breaking ties by
+     * x-coordinate (see Point.compareTo). The points of a store are in this
+     * order, so this is the same as comparing i and j.
+     *
+     * @param i index of the first point
+     * @param j index of the second point
+     * @return a negative integer, zero, or a positive integer as the i-th
+     * point is less than, equal to, or greater than the j-th point
+     */
+    public int compare(int i, int j) {
+        if (ys[i] != ys[j])
+            return ys[i] < ys[j] ? -1 : 1;
+        if (xs[i] != xs[j])
+            return xs[i] < xs[j] ? -1 : 1;
+        return 0;
+    }
+
+    /**
+     * Returns whether the direction between any two points of the store fits
+     * into a {@code Slopes.direction} key, i.e. whether the coordinates span
+     * at most Integer.MAX_VALUE along each axis.
+     *
+     * @return true if {@code direction} can be used on this store
+     */
+    public boolean fitsDirectionKeys() {
+        return fitsDirectionKeys;
+    }
+
+    /**
+     * Returns the exact direction key from the i-th point to the j-th point.
+     * Two points have the same key as seen from the i-th point if and only if
+     * they have the same slope to it, and a point has the smallest key,
+     * Slopes.SAME_POINT, as seen from itself. Uses Slopes.quotient while it is
+     * exact for the coordinates of the store, Slopes.direction otherwise.
+     * Only valid if {@code fitsDirectionKeys} is true.
+     *
+     * @param i index of the first point
+     * @param j index of the second point
+     * @return the direction key between the two points
+     */
+    public long direction(int i, int j) {
+        if (quotientKeys)
+            return Slopes.quotient(xs[j] - xs[i], ys[j] - ys[i]);
+        return Slopes.direction(xs[j] - xs[i], ys[j] - ys[i], keyWidth);
+    }
+
+    /**
+     * Compares the slopes that the j-th and k-th points make with the i-th
+     * point, the same way as Point.slopeOrder but without division.
+     *
+     * @param i index of the point the slopes are measured from
+     * @param j index of the first point
+     * @param k index of the second point
+     * @return a negative integer, zero, or a positive integer as the first
+     * slope is less than, equal to, or greater than the second slope
+     */
+    public int compareSlopes(int i, int j, int k) {
+        return Slopes.compare((long) xs[j] - xs[i], (long) ys[j] - ys[i],
+                              (long) xs[k] - xs[i], (long) ys[k] - ys[i]);
+    }
+
+    /**
+     * Returns the orientation of the i-th, j-th and k-th points (see
+     * Slopes.orientation).
+     *
+     * @param i index of the first point
+     * @param j index of the second point
+     * @param k index of the third point
+     * @return 0 if the points are collinear, non-zero otherwise
+     */
+    public int orientation(int i, int j, int k) {
+        return Slopes.orientation(xs[i], ys[i], xs[j], ys[j], xs[k], ys[k]);
+    }
+}
@@ -0,0 +1,314 @@
+/* *****************************************************************************
+ *  Name: Willy Chang
+ *  Date: 10/18/2026
+ *  Description: RandomizedLineDetector
+ **************************************************************************** */
+
+import edu.princeton.cs.algs4.In;
+import edu.princeton.cs.algs4.StdOut;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.SplittableRandom;
+
+public class RandomizedLineDetector implements CollinearEngine {
+    // Smallest number of points of a reported line, either fixed or as a
+    // fraction of the number of points (then minPoints is 0).
+    private final int minPoints;
+    private final double fraction;
+
+    // Probability of missing at least one line above the threshold.
+    private final double failureProbability;
+    private final long seed;
+
+    // Scratch direction keys from the current anchor.
+    private long[] keys;
+
+    /**
+     * Constructor that takes in the threshold and the failure probability.
+     *
+     * @param minPoints smallest number of points of a reported line
+     * @param fraction smallest fraction of the points of a reported line
+     * @param failureProbability probability of missing a line
+     * @param seed seed of the random anchors
+     */
+    private RandomizedLineDetector(int minPoints, double fraction, double failureProbability,
+                                   long seed) {
+        if (!(failureProbability > 0 && failureProbability < 1))
+            throw new IllegalArgumentException("Failure probability must be in (0, 1).");
+        this.minPoints = minPoints;
+        this.fraction = fraction;
+        this.failureProbability = failureProbability;
+        this.seed = seed;
+    }
+
+    /**
+     * Returns a detector for the lines with at least {@code minPoints}
+     * points.
+     *
+     * @param minPoints smallest number of points of a reported line, at
+     * least 3
+     * @param failureProbability probability of missing at least one such
+     * line, in (0, 1)
+     * @param seed seed of the random anchors
+     * @return the detector
+     */
+    public static RandomizedLineDetector withMinPoints(int minPoints, double failureProbability,
+                                                       long seed) {
+        if (minPoints < 3)
+            throw new IllegalArgumentException("A line needs at least 3 points.");
+        return new RandomizedLineDetector(minPoints, 0, failureProbability, seed);
+    }
+
+    /**
+     * Returns a detector for the lines that hold at least the given fraction
+     * of the points. With a fixed fraction the number of trials does not grow
+     * with the number of points, so detection takes O(n log n) time.
+     *
+     * @param fraction smallest fraction of the points of a reported line, in
+     * (0, 1]
+     * @param failureProbability probability of missing at least one such
+     * line, in (0, 1)
+     * @param seed seed of the random anchors
+     * @return the detector
+     */
+    public static RandomizedLineDetector withFraction(double fraction, double failureProbability,
+                                                      long seed) {
+        if (!(fraction > 0 && fraction <= 1))
+            throw new IllegalArgumentException("Fraction must be in (0, 1].");
+        return new RandomizedLineDetector(0, fraction, failureProbability, seed);
+    }
+
+    /**
+     * Returns the smallest number of points of a reported line among n
+     * points.
+     *
+     * @param n number of points
+     * @return the threshold, at least 3
+     */
+    public int threshold(int n) {
+        if (minPoints > 0)
+            return minPoints;
+        return (int) Math.max(3, Math.ceil(fraction * n));
+    }
+
+    /**
+     * Returns the number of random anchors used for n points. A line with
+     * m >= k points contains a random anchor with probability m / n >= k / n,
+     * so T anchors all miss it with probability at most exp(-T * k / n).
+     * There are at most n(n - 1) / (k(k - 1)) such lines, as every pair of
+     * points lies on one line and every such line holds k(k - 1) / 2 pairs,
+     * so T = (n / k) * ln(lines / failureProbability) misses any of them with
+     * probability at most failureProbability. If T reaches n, every point is
+     * used as an anchor instead and the result is exact.
+     *
+     * @param n number of points
+     * @return the number of anchors
+     */
+    public int trials(int n) {
+        int k = threshold(n);
+        if (n < k)
+            return 0;
+        double lines = Math.max(1, (double) n * (n - 1) / ((double) k * (k - 1)));
+        double trials = Math.ceil((double) n / k * Math.log(lines / failureProbability));
+        return (int) Math.min(n, trials);
+    }
+
+    /**
+     * Finds the maximal line segments with at least {@code threshold(n)}
+     * points, missing some with probability at most the failure
+     * probability. Horizontal and vertical lines are found exactly by
+     * AxisAlignedPass. For every random anchor, the direction keys of the
+     * other points are computed and sorted, so the lines through the anchor
+     * are counted exactly and only lines that really hold enough points are
+     * reported. A segment found from several anchors is reported once.
+     *
+     * @param store points to process
+     * @param sink receives the segments
+     */
+    @Override
+    public void find(PointStore store, SegmentSink sink) {
+        if (!store.fitsDirectionKeys())
+            throw new IllegalArgumentException("Coordinates too far apart for slope keys.");
+        int n = store.size();
+        int k = threshold(n);
+        AxisAlignedPass.find(store, k, sink);
+        int trials = trials(n);
+        if (keys == null || keys.length < n)
+            keys = new long[n];
+
+        HashSet<Long> reported = new HashSet<>();
+        SplittableRandom random = new SplittableRandom(seed);
+        for (int t = 0; t < trials; t++) {
+            int p = trials == n ? t : random.nextInt(n);
+            linesThrough(store, p, k, reported, sink);
+        }
+    }
+
+    /**
+     * Reports the lines through {@code p} that hold at least {@code k}
+     * points and are neither horizontal nor vertical.
+     *
+     * @param store points to process
+     * @param p index of the anchor
+     * @param k smallest number of points of a reported line
+     * @param reported endpoints of the segments reported so far
+     * @param sink receives the segments
+     */
+    private void linesThrough(PointStore store, int p, int k, HashSet<Long> reported,
+                              SegmentSink sink) {
+        // Sort the keys of the points that share neither a row nor a column
+        // with p, and keep the keys of runs of k - 1 or more points.
+        int n = store.size();
+        int px = store.x(p), py = store.y(p);
+        int m = 0;
+        for (int q = 0; q < n; q++) {
+            if (store.x(q) != px && store.y(q) != py)
+                keys[m++] = store.direction(p, q);
+        }
+        Arrays.sort(keys, 0, m);
+        int lines = 0;
+        for (int first = 0, last = 1; first < m; last++) {
+            while (last < m && keys[last] == keys[first])
+                last++;
+            if (last - first >= k - 1)
+                keys[lines++] = keys[first];
+            first = last;
+        }
+        if (lines == 0)
+            return;
+
+        // Find the endpoints of those lines in a second pass. The points are
+        // visited in ascending order, so the first one seen is the smallest.
+        long[] lineKeys = Arrays.copyOf(keys, lines);
+        int[] first = new int[lines];
+        int[] last = new int[lines];
+        Arrays.fill(first, -1);
+        for (int q = 0; q < n; q++) {
+            if (store.x(q) == px || store.y(q) == py)
+                continue;
+            int line = Arrays.binarySearch(lineKeys, store.direction(p, q));
+            if (line >= 0) {
+                if (first[line] < 0)
+                    first[line] = q;
+                last[line] = q;
+            }
+        }
+        for (int line = 0; line < lines; line++) {
+            int from = Math.min(p, first[line]);
+            int to = Math.max(p, last[line]);
+            if (reported.add(((long) from << 32) | to))
+                sink.segment(from, to);
+        }
+    }
+
+    /**
+     * Finds the lines of an array of Points.
+     *
+     * @param points array of Points
+     * @return the maximal segments found
+     * @throws IllegalArgumentException if the points are null, contain null
+     * or duplicate points, or are too far apart for slope keys
+     */
+    public LineSegment[] detect(Point[] points) {
+        if ((points == null) || (points.length == 0))
+            throw new IllegalArgumentException("No points given.");
+        PointStore store = PointStore.of(points);
+        SegmentBuffer lines = new SegmentBuffer();
+        find(store, lines);
+        return lines.toLineSegments(store);
+    }
+
+    /**
+     * Returns the names of segments in sorted order, so that results that
+     * list the same segments in a different order compare equal.
+     *
+     * @param segments the segments
+     * @return their toString values, sorted
+     */
+    private static List<String> names(LineSegment[] segments) {
+        List<String> names = new ArrayList<>();
+        for (LineSegment segment : segments)
+            names.add(segment.toString());
+        Collections.sort(names);
+        return names;
+    }
+
+    /**
+     * Compares the segments found by a detector with the exact result of
+     * SortingCollinearEngine for the same threshold and prints the outcome.
+     *
+     * @param detector the detector
+     * @param points array of Points
+     * @param sampled whether the detector must use fewer anchors than
+     * points, so that the random anchors are tested
+     */
+    private static void check(RandomizedLineDetector detector, Point[] points, boolean sampled) {
+        PointStore store = PointStore.of(points);
+        int n = store.size();
+        int k = detector.threshold(n);
+        SortingCollinearEngine.Mode mode = store.fitsDirectionKeys()
+                                           ? SortingCollinearEngine.Mode.SLOPE_KEYS
+                                           : SortingCollinearEngine.Mode.COMPARATOR;
+        SegmentBuffer exact = new SegmentBuffer();
+        new SortingCollinearEngine(mode, k, null).find(store, exact);
+        List<String> expected = names(exact.toLineSegments(store));
+        List<String> found = names(detector.detect(points));
+        int trials = detector.trials(n);
+        boolean passed = found.equals(expected) && (!sampled || trials < n);
+        StdOut.println(trials + " of " + n + " anchors, " + k + "+ points, " + found.size()
+                               + " of " + expected.size() + " segments"
+                               + (passed ? " PASSED!" : " FAILED!"));
+    }
+
+    public static void main(String[] args) {
+        /* Compare the lines of 4+ points found with a 1e-6 failure
+         * probability with the exact result, which uses every point as an
+         * anchor for these files */
+        String[] testFiles = {
+                "input8.txt", "equidistant.txt", "input40.txt", "input48.txt",
+                "horizontal5.txt", "vertical5.txt", "random23.txt", "input6000.txt"
+        };
+        for (int i = 0; i < testFiles.length; i++) {
+            StdOut.println(testFiles[i]);
+            In in = new In(testFiles[i]);
+            int n = in.readInt();
+            Point[] points = new Point[n];
+            for (int j = 0; j < n; j++) {
+                int x = in.readInt();
+                int y = in.readInt();
+                points[j] = new Point(x, y);
+            }
+            check(withMinPoints(4, 1e-6, 1), points, false);
+            StdOut.println("---");
+        }
+
+        /* Random anchors: the lines of 20+ points of kw1260.txt with a 1e-3
+         * failure probability */
+        StdOut.println("kw1260.txt");
+        check(withMinPoints(20, 1e-3, 1), PointFileReader.readPoints("kw1260.txt"), true);
+        StdOut.println("---");
+
+        /* Random anchors for a fraction: 1000 random points with a planted
+         * line of 150 points, looking for lines of a tenth of the points */
+        StdOut.println("planted line");
+        SplittableRandom random = new SplittableRandom(2026);
+        HashSet<Long> seen = new HashSet<>();
+        Point[] planted = new Point[1000];
+        int count = 0;
+        for (int x = 0; count < 150; x++, count++) {
+            planted[count] = new Point(100 + 13 * x, 200 + 7 * x);
+            seen.add(PointStore.pack(planted[count].x(), planted[count].y()));
+        }
+        while (count < planted.length) {
+            int x = random.nextInt(32768), y = random.nextInt(32768);
+            if (seen.add(PointStore.pack(x, y)))
+                planted[count++] = new Point(x, y);
+        }
+        check(withFraction(0.1, 1e-6, 1), planted, true);
+        StdOut.println("---");
+    }
+}
@@ -0,0 +1,101 @@
+/* *****************************************************************************
+ *  Name: Willy Chang
+ *  Date: 10/18/2026
+ *  Description: SegmentBuffer
+ **************************************************************************** */
+
+import java.util.Arrays;
+
+public class SegmentBuffer implements SegmentSink {
+    // Endpoint index pairs of the segments, two ints per segment.
+    private int[] pairs = new int[16];
+    private int count;
+
+    /**
+     * Stores the endpoints of a segment, growing {@code pairs} as needed.
+     *
+     * @param p index of the first endpoint
+     * @param q index of the last endpoint
+     */
+    @Override
+    public void segment(int p, int q) {
+        if (2 * count == pairs.length)
+            pairs = Arrays.copyOf(pairs, 2 * pairs.length);
+        pairs[2 * count] = p;
+        pairs[2 * count + 1] = q;
+        count++;
+    }
+
+    /**
+     * Return the number of segments in the buffer.
+     *
+     * @return the number of segments
+     */
+    public int size() {
+        return count;
+    }
+
+    /**
+     * Return the first endpoint of the i-th segment.
+     *
+     * @param i index of the segment
+     * @return the index of the first endpoint in the store
+     */
+    public int first(int i) {
+        if (i < 0 || i >= count)
+            throw new IndexOutOfBoundsException("Segment " + i + " of " + count);
+        return pairs[2 * i];
+    }
+
+    /**
+     * Return the last endpoint of the i-th segment.
+     *
+     * @param i index of the segment
+     * @return the index of the last endpoint in the store
+     */
+    public int last(int i) {
+        if (i < 0 || i >= count)
+            throw new IndexOutOfBoundsException("Segment " + i + " of " + count);
+        return pairs[2 * i + 1];
+    }
+
+    /**
+     * Removes all segments, keeping the allocated space.
+     */
+    public void clear() {
+        count = 0;
+    }
+
+    /**
+     * Passes every segment in the buffer on to another sink, in order.
+     *
+     * @param sink the sink to pass the segments to
+     */
+    public void replay(SegmentSink sink) {
+        for (int i = 0; i < count; i++)
+            sink.segment(pairs[2 * i], pairs[2 * i + 1]);
+    }
+
+    /**
+     * Return a copy of the endpoint pairs, two ints per segment.
+     *
+     * @return the endpoint indices of the segments
+     */
+    public int[] toArray() {
+        return Arrays.copyOf(pairs, 2 * count);
+    }
+
+    /**
+     * Return the segments as LineSegments between points of a store. Only
+     * used at the API edge.
+     *
+     * @param store the store the endpoint indices refer to
+     * @return an array of the LineSegments in the buffer
+     */
+    public LineSegment[] toLineSegments(PointStore store) {
+        LineSegment[] segments = new LineSegment[count];
+        for (int i = 0; i < count; i++)
+            segments[i] = new LineSegment(store.point(pairs[2 * i]), store.point(pairs[2 * i + 1]));
+        return segments;
+    }
+}
@@ -0,0 +1,17 @@
+/* *****************************************************************************
+ *  Name: Willy Chang
+ *  Date: 10/18/2026
+ *  Description: SegmentSink
+ **************************************************************************** */
+
+public interface SegmentSink {
+    /**
+     * Receives a maximal line segment as soon as an engine finds it. The
+     * endpoints are indices into the {@code PointStore} the engine runs on,
+     * from the smallest to the largest point of the segment.
+     *
+     * @param p index of the first endpoint
+     * @param q index of the last endpoint
+     */
+    void segment(int p, int q);
+}
@@ -0,0 +1,370 @@
+/* *****************************************************************************
+ *  Name: Willy Chang
+ *  Date: 10/18/2026
+ *  Description: ShardCoordinator
+ **************************************************************************** */
+
+import edu.princeton.cs.algs4.StdOut;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+public class ShardCoordinator implements CollinearEngine {
+    // Number of shards per worker, so that workers that finish early pick up
+    // more shards and a failed shard costs little to run again.
+    private static final int SHARDS_PER_WORKER = 4;
+
+    // How long a worker may take to answer a shard by default.
+    private static final long DEFAULT_TIMEOUT_MILLIS = 10 * 60 * 1000;
+
+    private final int workers;
+    private final int minPoints;
+    private final int maxAttempts;
+    private final long timeoutMillis;
+
+    // Extra arguments passed to every worker process.
+    private final String[] workerArgs;
+
+    /**
+     * Constructor for a coordinator that runs the given number of worker
+     * processes and reports the segments of 4+ points.
+     *
+     * @param workers number of worker processes
+     */
+    public ShardCoordinator(int workers) {
+        this(workers, 4, 3);
+    }
+
+    /**
+     * Constructor for a coordinator that runs the given number of worker
+     * processes.
+     *
+     * @param workers number of worker processes
+     * @param minPoints smallest number of points of a reported segment, at
+     * least 2
+     * @param maxAttempts how often a shard is dispatched before giving up
+     */
+    public ShardCoordinator(int workers, int minPoints, int maxAttempts) {
+        this(workers, minPoints, maxAttempts, DEFAULT_TIMEOUT_MILLIS);
+    }
+
+    /**
+     * Constructor that also takes in how long a worker may take to answer a
+     * shard. A worker that takes longer is killed and its shard is
+     * dispatched again, as if it had crashed.
+     *
+     * @param workers number of worker processes
+     * @param minPoints smallest number of points of a reported segment, at
+     * least 2
+     * @param maxAttempts how often a shard is dispatched before giving up
+     * @param timeoutMillis milliseconds a worker may take to answer a shard
+     */
+    public ShardCoordinator(int workers, int minPoints, int maxAttempts, long timeoutMillis) {
+        this(workers, minPoints, maxAttempts, timeoutMillis, new String[0]);
+    }
+
+    /**
+     * Constructor that also takes in extra arguments for the worker
+     * processes (see ShardWorker.main).
+     *
+     * @param workers number of worker processes
+     * @param minPoints smallest number of points of a reported segment
+     * @param maxAttempts how often a shard is dispatched before giving up
+     * @param timeoutMillis milliseconds a worker may take to answer a shard
+     * @param workerArgs extra arguments of every worker process
+     */
+    ShardCoordinator(int workers, int minPoints, int maxAttempts, long timeoutMillis,
+                     String[] workerArgs) {
+        if (workers < 1)
+            throw new IllegalArgumentException("Workers must be positive.");
+        if (minPoints < 2)
+            throw new IllegalArgumentException("A segment needs at least 2 points.");
+        if (maxAttempts < 1)
+            throw new IllegalArgumentException("Attempts must be positive.");
+        if (timeoutMillis < 1)
+            throw new IllegalArgumentException("Timeout must be positive.");
+        this.workers = workers;
+        this.minPoints = minPoints;
+        this.maxAttempts = maxAttempts;
+        this.timeoutMillis = timeoutMillis;
+        this.workerArgs = workerArgs.clone();
+    }
+
+    /**
+     * Finds every maximal line segment that connects at least
+     * {@code minPoints} points of the store with worker JVMs. The store is
+     * written to a temporary point column file that every worker maps, and
+     * the anchors are split into shards that the workers run with
+     * {@code SortingCollinearEngine}, talking to the coordinator over their
+     * stdin and stdout. A worker that fails, or does not answer a shard
+     * within the timeout, is killed and replaced by a new process, and its
+     * shard is dispatched again. A segment is only reported from its
+     * smallest point, so the shards never report the same segment and the
+     * coordinator merges them by passing them on in shard order, after the
+     * horizontal and vertical segments from AxisAlignedPass. This gives the
+     * same result as FastCollinearPoints.
+     *
+     * @param store points to process
+     * @param sink receives the segments
+     * @throws UncheckedIOException if a shard fails {@code maxAttempts}
+     * times, or the point file cannot be written
+     */
+    @Override
+    public void find(PointStore store, SegmentSink sink) {
+        int anchors = Math.max(0, store.size() - minPoints + 1);
+        int[] bounds = shards(store.size(), anchors, workers * SHARDS_PER_WORKER);
+        int shards = bounds.length - 1;
+        SegmentBuffer[] results = new SegmentBuffer[shards];
+
+        Path points = null;
+        int threads = Math.min(workers, shards);
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, threads));
+        try {
+            points = Files.createTempFile("collinear", ".cpts");
+            PointColumnFile.write(points.toString(), store);
+            String path = points.toString();
+
+            ConcurrentLinkedQueue<Integer> pending = new ConcurrentLinkedQueue<>();
+            for (int s = 0; s < shards; s++)
+                pending.add(s);
+            AtomicIntegerArray attempts = new AtomicIntegerArray(shards);
+
+            CompletableFuture<?>[] futures = new CompletableFuture<?>[threads];
+            for (int w = 0; w < futures.length; w++) {
+                futures[w] = CompletableFuture.runAsync(
+                        () -> serve(path, bounds, pending, attempts, results), executor);
+            }
+            CompletableFuture.allOf(futures).join();
+        }
+        catch (IOException ioException) {
+            throw new UncheckedIOException("Could not write the points for the workers.",
+                                           ioException);
+        }
+        catch (CompletionException completionException) {
+            Throwable cause = completionException.getCause();
+            if (cause instanceof RuntimeException)
+                throw (RuntimeException) cause;
+            if (cause instanceof Error)
+                throw (Error) cause;
+            throw completionException;
+        }
+        finally {
+            executor.shutdownNow();
+            if (points != null)
+                points.toFile().delete();
+        }
+
+        AxisAlignedPass.find(store, minPoints, sink);
+        for (SegmentBuffer result : results)
+            result.replay(sink);
+    }
+
+    /**
+     * Splits the anchors into shards of about equal work. Anchor p sorts
+     * the n - p - 1 points after it, so the work of the anchors before b is
+     * about n^2 - (n - b)^2 and shard i ends where that is i / shards of the
+     * total.
+     *
+     * @param n number of points
+     * @param anchors number of anchors
+     * @param shards number of shards wanted
+     * @return the bounds of the shards, from 0 to {@code anchors}, or just 0
+     * if there are no anchors
+     */
+    static int[] shards(int n, int anchors, int shards) {
+        shards = Math.min(shards, anchors);
+        if (shards == 0)
+            return new int[] { 0 };
+        int[] bounds = new int[shards + 1];
+        for (int i = 1; i < shards; i++) {
+            int bound = (int) (n - n * Math.sqrt(1 - (double) i / shards));
+            bounds[i] = Math.min(anchors, Math.max(bounds[i - 1], bound));
+        }
+        bounds[shards] = anchors;
+        return bounds;
+    }
+
+    /**
+     * Runs one worker process and feeds it pending shards until there are
+     * none left. If the process fails or times out, it is killed, its shard
+     * is put back and a new process is started.
+     *
+     * @param path path of the point column file
+     * @param bounds bounds of the shards
+     * @param pending shards that still have to run
+     * @param attempts how often each shard was dispatched
+     * @param results segments of each shard
+     */
+    private void serve(String path, int[] bounds, ConcurrentLinkedQueue<Integer> pending,
+                       AtomicIntegerArray attempts, SegmentBuffer[] results) {
+        Worker worker = null;
+        try {
+            for (Integer shard = pending.poll(); shard != null; shard = pending.poll()) {
+                int attempt = attempts.incrementAndGet(shard);
+                try {
+                    if (worker == null)
+                        worker = new Worker(path);
+                    results[shard] = worker.run(bounds[shard], bounds[shard + 1]);
+                }
+                catch (IOException ioException) {
+                    if (worker != null)
+                        worker.process.destroyForcibly();
+                    worker = null;
+                    if (attempt >= maxAttempts)
+                        throw new UncheckedIOException(
+                                "Shard " + shard + " failed " + attempt + " times.", ioException);
+                    pending.add(shard);
+                }
+            }
+        }
+        finally {
+            if (worker != null)
+                worker.process.destroy();
+        }
+    }
+
+    /**
+     * Private class for a worker process and the pipes to it.
+     */
+    private class Worker {
+        private final Process process;
+        private final DataInputStream in;
+        private final DataOutputStream out;
+
+        /**
+         * Starts a worker process on the classpath of this JVM and sends it
+         * the point file and the threshold.
+         *
+         * @param path path of the point column file
+         * @throws IOException if the process cannot be started
+         */
+        Worker(String path) throws IOException {
+            List<String> command = new ArrayList<>();
+            command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+            command.add("-cp");
+            command.add(System.getProperty("java.class.path"));
+            command.add("ShardWorker");
+            command.addAll(Arrays.asList(workerArgs));
+            process = new ProcessBuilder(command)
+                    .redirectError(ProcessBuilder.Redirect.INHERIT)
+                    .start();
+            in = new DataInputStream(new BufferedInputStream(process.getInputStream()));
+            out = new DataOutputStream(new BufferedOutputStream(process.getOutputStream()));
+            out.writeUTF(path);
+            out.writeInt(minPoints);
+            out.flush();
+        }
+
+        /**
+         * Runs one shard on the worker. The answer is read on a separate
+         * thread, so that a worker that hangs cannot block the coordinator
+         * past the timeout; once the process is killed, the read fails and
+         * the thread ends.
+         *
+         * @param from first anchor, inclusive
+         * @param to last anchor, exclusive
+         * @return the segments of the shard
+         * @throws IOException if the worker fails or times out before
+         * answering
+         */
+        SegmentBuffer run(int from, int to) throws IOException {
+            out.writeInt(from);
+            out.writeInt(to);
+            out.flush();
+
+            FutureTask<SegmentBuffer> answer = new FutureTask<>(this::read);
+            Thread reader = new Thread(answer, "ShardCoordinator reader");
+            reader.setDaemon(true);
+            reader.start();
+            try {
+                return answer.get(timeoutMillis, TimeUnit.MILLISECONDS);
+            }
+            catch (TimeoutException timeoutException) {
+                throw new IOException("Worker did not answer within " + timeoutMillis + " ms.",
+                                      timeoutException);
+            }
+            catch (ExecutionException executionException) {
+                Throwable cause = executionException.getCause();
+                if (cause instanceof IOException)
+                    throw (IOException) cause;
+                throw new IOException("Could not read the answer of the worker.", cause);
+            }
+            catch (InterruptedException interruptedException) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while waiting for the worker.");
+            }
+        }
+
+        /**
+         * Reads the answer to a shard.
+         *
+         * @return the segments of the shard
+         * @throws IOException if the worker fails before answering
+         */
+        private SegmentBuffer read() throws IOException {
+            SegmentBuffer lines = new SegmentBuffer();
+            for (int p = in.readInt(); p != ShardWorker.END; p = in.readInt())
+                lines.segment(p, in.readInt());
+            return lines;
+        }
+    }
+
+    public static void main(String[] args) {
+        /* Compare with FastCollinearPoints, once with workers that crash
+         * after their first shard, which forces every other shard to be
+         * dispatched again, and for the largest file once with workers that
+         * hang after their first shard until they time out */
+        String[] testFiles = {
+                "input8.txt", "equidistant.txt", "input40.txt", "input48.txt",
+                "horizontal5.txt", "vertical5.txt", "random23.txt", "input6000.txt"
+        };
+        ShardCoordinator coordinator = new ShardCoordinator(2);
+        ShardCoordinator crashing = new ShardCoordinator(2, 4, 100, DEFAULT_TIMEOUT_MILLIS,
+                                                         new String[] { "--crash-after", "1" });
+        ShardCoordinator hanging = new ShardCoordinator(2, 4, 100, 2000,
+                                                        new String[] { "--hang-after", "1" });
+        for (int i = 0; i < testFiles.length; i++) {
+            StdOut.println(testFiles[i]);
+            Point[] points = PointFileReader.readPoints(testFiles[i]);
+            PointStore store = PointStore.of(points);
+            List<String> expected = new ArrayList<>();
+            for (LineSegment segment : new FastCollinearPoints(points).segments())
+                expected.add(segment.toString());
+
+            ShardCoordinator[] engines = i == testFiles.length - 1
+                                         ? new ShardCoordinator[] { coordinator, crashing, hanging }
+                                         : new ShardCoordinator[] { coordinator, crashing };
+            for (ShardCoordinator engine : engines) {
+                SegmentBuffer lines = new SegmentBuffer();
+                engine.find(store, lines);
+                List<String> found = new ArrayList<>();
+                for (LineSegment segment : lines.toLineSegments(store))
+                    found.add(segment.toString());
+                StdOut.println(found.size() + " of " + expected.size() + " segments"
+                                       + (found.equals(expected) ? " PASSED!" : " FAILED!"));
+            }
+            StdOut.println("---");
+        }
+    }
+}
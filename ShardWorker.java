@@ -0,0 +1,89 @@
+/* *****************************************************************************
+ *  Name: Willy Chang
+ *  Date: 10/18/2026
+ *  Description: ShardWorker
+ **************************************************************************** */
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+
+public final class ShardWorker {
+    /*
+     * Protocol over stdin and stdout, all ints big-endian (see DataInput):
+     *
+     *   coordinator -> worker, once:   UTF path of a sorted point column file,
+     *                                  int minPoints
+     *   coordinator -> worker, then:   int from, int to (one shard of anchors)
+     *   worker -> coordinator:         int p, int q for every segment of the
+     *                                  shard, then END
+     *
+     * The worker serves shards until stdin is closed. It does not run
+     * AxisAlignedPass, the coordinator does that once for all shards.
+     */
+    static final int END = -1;
+
+    /**
+     * Private constructor, this class only has a main method.
+     */
+    private ShardWorker() {
+    }
+
+    /**
+     * Serves shards from stdin until it is closed.
+     *
+     * @param args optionally "--crash-after" or "--hang-after" and a number
+     * of shards, after which the worker exits or stops without an answer, to
+     * test re-dispatching
+     * @throws IOException if the pipes break
+     */
+    public static void main(String[] args) throws IOException {
+        int crashAfter = args.length == 2 && args[0].equals("--crash-after")
+                         ? Integer.parseInt(args[1]) : Integer.MAX_VALUE;
+        int hangAfter = args.length == 2 && args[0].equals("--hang-after")
+                        ? Integer.parseInt(args[1]) : Integer.MAX_VALUE;
+        DataInputStream in = new DataInputStream(new BufferedInputStream(System.in));
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(System.out));
+
+        PointStore store = PointColumnFile.readStore(in.readUTF());
+        int minPoints = in.readInt();
+        SortingCollinearEngine.Mode mode = store.fitsDirectionKeys()
+                                           ? SortingCollinearEngine.Mode.SLOPE_KEYS
+                                           : SortingCollinearEngine.Mode.COMPARATOR;
+        SortingCollinearEngine engine = new SortingCollinearEngine(mode, minPoints, null);
+        SegmentBuffer lines = new SegmentBuffer();
+
+        for (int served = 0; ; served++) {
+            int from, to;
+            try {
+                from = in.readInt();
+                to = in.readInt();
+            }
+            catch (EOFException eofException) {
+                return;
+            }
+            if (served == crashAfter)
+                System.exit(1);
+            while (served == hangAfter) {
+                try {
+                    Thread.sleep(Long.MAX_VALUE);
+                }
+                catch (InterruptedException interruptedException) {
+                    // Keep hanging until the coordinator kills the process.
+                }
+            }
+
+            lines.clear();
+            engine.find(store, from, to, lines);
+            for (int i = 0; i < lines.size(); i++) {
+                out.writeInt(lines.first(i));
+                out.writeInt(lines.last(i));
+            }
+            out.writeInt(END);
+            out.flush();
+        }
+    }
+}
@@ -0,0 +1,208 @@
+/* *****************************************************************************
+ *  Name: Willy Chang
+ *  Date: 10/18/2026
+ *  Description: Slopes
+ **************************************************************************** */
+
+public final class Slopes {
+    /**
+     * Direction key of two equal points. No other vector maps to it, and it
+     * is smaller than every other key.
+     */
+    public static final long SAME_POINT = Long.MIN_VALUE;
+
+    /**
+     * Largest span of coordinates for which quotient keys are exact. Two
+     * different slopes of vectors with components up to D differ by at least
+     * 1 / D^2, while rounding moves each quotient by at most D * 2^-53, so
+     * the rounded quotients keep their order as long as D^3 < 2^52.
+     */
+    public static final int QUOTIENT_SPAN = (1 << 17) - 1;
+
+    /**
+     * Private constructor, this class only has static methods.
+     */
+    private Slopes() {
+    }
+
+    /**
+     * Returns the quotient key of the vector (dx, dy): the slope dy / dx as a
+     * double, with the special cases of Point.slopeTo, mapped to a long with
+     * the same order. One division is much cheaper than reducing the vector,
+     * and for components up to QUOTIENT_SPAN the key is exact: two vectors
+     * have the same key if and only if they have the same slope, and the keys
+     * are ordered by slope.
+     *
+     * @param dx x-component of the vector
+     * @param dy y-component of the vector
+     * @return the quotient key of the vector
+     */
+    public static long quotient(int dx, int dy) {
+        if (dx == 0) {
+            if (dy == 0)
+                return SAME_POINT;
+            return Double.doubleToRawLongBits(Double.POSITIVE_INFINITY);
+        }
+        if (dy == 0)
+            return 0L;
+
+        long bits = Double.doubleToRawLongBits((double) dy / dx);
+        return bits ^ ((bits >> 63) & Long.MAX_VALUE);
+    }
+
+    /**
+     * Returns the exact direction key of the vector (dx, dy). The vector is
+     * divided by the gcd of its components and its sign is chosen so that
+     * dx > 0, or dx = 0 and dy > 0. The key is dy * width + dx of the reduced
+     * vector, so two vectors have the same key if and only if they have the
+     * same slope. Both components must fit into a direction key (see
+     * fitsDirection) and {@code width} must be greater than |dx|, which keeps
+     * the keys of points with small coordinates small.
+     *
+     * @param dx x-component of the vector
+     * @param dy y-component of the vector
+     * @param width bound on the x-components, at most 2^31
+     * @return the direction key of the vector
+     */
+    public static long direction(int dx, int dy, long width) {
+        if (dx == 0) {
+            if (dy == 0)
+                return SAME_POINT;
+            return width;
+        }
+        if (dy == 0)
+            return 1L;
+
+        if (dx < 0) {
+            dx = -dx;
+            dy = -dy;
+        }
+        int g = gcd(dx, Math.abs(dy));
+        return (long) (dy / g) * width + dx / g;
+    }
+
+    /**
+     * Returns whether a vector fits into a quotient key.
+     *
+     * @param dx x-component of the vector
+     * @param dy y-component of the vector
+     * @return true if both components are within
+     * [-QUOTIENT_SPAN, QUOTIENT_SPAN]
+     */
+    public static boolean fitsQuotient(long dx, long dy) {
+        return Math.abs(dx) <= QUOTIENT_SPAN && Math.abs(dy) <= QUOTIENT_SPAN;
+    }
+
+    /**
+     * Returns whether a vector fits into a direction key.
+     *
+     * @param dx x-component of the vector
+     * @param dy y-component of the vector
+     * @return true if both components are within
+     * [-Integer.MAX_VALUE, Integer.MAX_VALUE]
+     */
+    public static boolean fitsDirection(long dx, long dy) {
+        return Math.abs(dx) <= Integer.MAX_VALUE && Math.abs(dy) <= Integer.MAX_VALUE;
+    }
+
+    /**
+     * Compares the slopes of the vectors (dx1, dy1) and (dx2, dy2) without
+     * division, with the same special cases as Point.slopeTo: a zero vector
+     * has the smallest slope and a vertical vector the largest. The products
+     * are computed with 128-bit precision, so any differences of two ints
+     * are compared exactly.
+     *
+     * @param dx1 x-component of the first vector
+     * @param dy1 y-component of the first vector
+     * @param dx2 x-component of the second vector
+     * @param dy2 y-component of the second vector
+     * @return a negative integer, zero, or a positive integer as the first
+     * slope is less than, equal to, or greater than the second slope
+     */
+    public static int compare(long dx1, long dy1, long dx2, long dy2) {
+        int kind1 = kind(dx1, dy1);
+        int kind2 = kind(dx2, dy2);
+        if (kind1 != kind2 || kind1 != 1)
+            return Integer.compare(kind1, kind2);
+
+        // Both vectors are finite, point them to the right and compare
+        // dy1 / dx1 with dy2 / dx2 as dy1 * dx2 with dy2 * dx1.
+        if (dx1 < 0) {
+            dx1 = -dx1;
+            dy1 = -dy1;
+        }
+        if (dx2 < 0) {
+            dx2 = -dx2;
+            dy2 = -dy2;
+        }
+        return compareProducts(dy1, dx2, dy2, dx1);
+    }
+
+    /**
+     * Returns the orientation of the points a, b and c, i.e. the sign of the
+     * cross product (b - a) x (c - a), computed with 128-bit precision.
+     *
+     * @param ax x-coordinate of a
+     * @param ay y-coordinate of a
+     * @param bx x-coordinate of b
+     * @param by y-coordinate of b
+     * @param cx x-coordinate of c
+     * @param cy y-coordinate of c
+     * @return 1 if a, b, c turn counterclockwise, -1 if they turn clockwise
+     * and 0 if they are collinear
+     */
+    public static int orientation(int ax, int ay, int bx, int by, int cx, int cy) {
+        return compareProducts((long) bx - ax, (long) cy - ay, (long) by - ay, (long) cx - ax);
+    }
+
+    /**
+     * Returns the sign of a * b - c * d, computed with 128-bit precision.
+     *
+     * @param a first factor of the first product
+     * @param b second factor of the first product
+     * @param c first factor of the second product
+     * @param d second factor of the second product
+     * @return -1, 0 or 1 as a * b is less than, equal to, or greater than
+     * c * d
+     */
+    static int compareProducts(long a, long b, long c, long d) {
+        long high1 = Math.multiplyHigh(a, b);
+        long high2 = Math.multiplyHigh(c, d);
+        if (high1 != high2)
+            return high1 < high2 ? -1 : 1;
+        return Integer.signum(Long.compareUnsigned(a * b, c * d));
+    }
+
+    /**
+     * Classifies a vector as zero (0), finite slope (1) or vertical (2).
+     *
+     * @param dx x-component of the vector
+     * @param dy y-component of the vector
+     * @return the kind of the vector
+     */
+    private static int kind(long dx, long dy) {
+        if (dx != 0)
+            return 1;
+        return dy == 0 ? 0 : 2;
+    }
+
+    /**
+     * Binary gcd of two positive numbers. The loop body compiles to
+     * conditional moves, so it does not suffer from branch mispredictions.
+     *
+     * @param a first number
+     * @param b second number
+     * @return the greatest common divisor of a and b
+     */
+    private static int gcd(int a, int b) {
+        int shift = Integer.numberOfTrailingZeros(a | b);
+        a >>= Integer.numberOfTrailingZeros(a);
+        do {
+            b >>= Integer.numberOfTrailingZeros(b);
+            int diff = b - a;
+            a = Math.min(a, b);
+            b = Math.abs(diff);
+        } while (b != 0);
+        return a << shift;
+    }
+}
@@ -0,0 +1,494 @@
+/* *****************************************************************************
+ *  Name: Willy Chang
+ *  Date: 10/18/2026
+ *  Description: SortingCollinearEngine
+ **************************************************************************** */
+
+import java.util.Arrays;
+
+public class SortingCollinearEngine implements CollinearEngine {
+    /**
+     * How the points are ordered by slope for each anchor.
+     */
+    public enum Mode {
+        // Merge sort that compares both slopes exactly on every comparison.
+        // Works for any int coordinates.
+        COMPARATOR,
+        // Direction keys computed once per anchor into a key array that is
+        // radix sorted together with the point indices. Needs a store whose
+        // directions fit into keys (see PointStore.fitsDirectionKeys).
+        SLOPE_KEYS
+    }
+
+    // Below this many points the slope keys are insertion sorted.
+    private static final int INSERTION_SORT_CUTOFF = 32;
+
+    private final Mode mode;
+
+    // Smallest number of points of a reported segment.
+    private final int minPoints;
+
+    // Statistics to record into, or null.
+    private final EngineStats stats;
+
+    // Store being processed, the sink for its segments and the anchor of
+    // the current slope sort.
+    private PointStore store;
+    private SegmentSink sink;
+    private int anchor;
+
+    // Scratch permutation of point indices and its merge buffer.
+    private int[] order;
+    private int[] aux;
+
+    // Scratch slope keys and the radix sort buffer for them.
+    private long[] keys;
+    private long[] keyAux;
+    private long keyShift;
+    private final int[] counts = new int[257];
+
+    // Scratch arrays of the column sort of AxisAlignedPass.
+    private final AxisAlignedPass.Scratch axisScratch = new AxisAlignedPass.Scratch();
+
+    /**
+     * Constructor for an engine that sorts by precomputed slope keys.
+     */
+    public SortingCollinearEngine() {
+        this(Mode.SLOPE_KEYS);
+    }
+
+    /**
+     * Constructor for an engine that sorts by slope in the given mode.
+     *
+     * @param mode how to order the points by slope
+     */
+    public SortingCollinearEngine(Mode mode) {
+        this(mode, null);
+    }
+
+    /**
+     * Constructor for an engine that sorts by slope in the given mode and
+     * records statistics. Without statistics the scan does not read the
+     * clock or count anything.
+     *
+     * @param mode how to order the points by slope
+     * @param stats statistics to record into, or null
+     */
+    public SortingCollinearEngine(Mode mode, EngineStats stats) {
+        this(mode, 4, stats);
+    }
+
+    /**
+     * Constructor for an engine that reports the segments of at least
+     * {@code minPoints} points, sorts by slope in the given mode and
+     * optionally records statistics. A larger threshold lets the engine stop
+     * after the anchor n - minPoints and skip anchors with too few candidate
+     * points.
+     *
+     * @param mode how to order the points by slope
+     * @param minPoints smallest number of points of a reported segment, at
+     * least 2
+     * @param stats statistics to record into, or null
+     */
+    public SortingCollinearEngine(Mode mode, int minPoints, EngineStats stats) {
+        if (mode == null)
+            throw new IllegalArgumentException("No mode given.");
+        if (minPoints < 2)
+            throw new IllegalArgumentException("A segment needs at least 2 points.");
+        this.mode = mode;
+        this.minPoints = minPoints;
+        this.stats = stats;
+    }
+
+    /**
+     * Finds every maximal line segment that connects at least
+     * {@code minPoints} points of the store. Horizontal and vertical segments
+     * are found first by AxisAlignedPass in linear time. A segment is only
+     * reported from its smallest point, so for each point p only the greater
+     * points that share neither a row nor a column with p are sorted by the
+     * slope they make with p, and runs of {@code minPoints - 1} or more equal
+     * slopes are checked. Such a run is a maximal segment unless a smaller
+     * point has the same slope to p, which is checked with a binary search
+     * over the runs. A segment of k points needs k - 1 points after its
+     * smallest point, so the anchors stop at n - minPoints.
+     *
+     * @param store points to process
+     * @param sink receives the segments
+     */
+    @Override
+    public void find(PointStore store, SegmentSink sink) {
+        if (mode == Mode.SLOPE_KEYS && !store.fitsDirectionKeys())
+            throw new IllegalArgumentException("Coordinates too far apart for slope keys.");
+        int anchors = Math.max(0, store.size() - minPoints + 1);
+        if (stats == null) {
+            AxisAlignedPass.find(store, minPoints, sink, axisScratch);
+            find(store, 0, anchors, sink);
+            return;
+        }
+        EngineStats.ScanEvent event = stats.begin("sorting", store.size());
+        SegmentSink counting = stats.counting(sink);
+        stats.axis(store, minPoints, counting);
+        find(store, 0, anchors, counting);
+        stats.end(event);
+    }
+
+    /**
+     * Finds the maximal line segments whose smallest point is one of the
+     * anchors {@code [from, to)}, except the horizontal and vertical ones,
+     * which callers find with AxisAlignedPass. Only reads {@code store}, so
+     * engines with their own scratch arrays can scan disjoint anchor ranges
+     * of the same store at the same time.
+     *
+     * @param store points to process
+     * @param from first anchor, inclusive
+     * @param to last anchor, exclusive
+     * @param sink receives the segments
+     */
+    void find(PointStore store, int from, int to, SegmentSink sink) {
+        int n = store.size();
+        this.store = store;
+        this.sink = sink;
+        ensureCapacity(n);
+
+        for (int p = from; p < to; p++) {
+            // Sort the indices based off their slopes to point p, starting
+            // from ascending order so that points with equal slopes stay in
+            // ascending order.
+            int m = candidates(p, n);
+            if (m < minPoints)
+                continue;
+            if (stats != null) {
+                measure(p, m);
+            }
+            else if (mode == Mode.SLOPE_KEYS) {
+                computeKeys(p, m);
+                sortKeys(m);
+                scanKeys(p, m);
+            }
+            else {
+                anchor = p;
+                sort(0, m);
+                scanComparator(p, m);
+            }
+        }
+
+        this.store = null;
+        this.sink = null;
+    }
+
+    /**
+     * Makes sure the scratch arrays can hold {@code n} points.
+     *
+     * @param n number of points
+     */
+    private void ensureCapacity(int n) {
+        // One spare slot in order for the branchless fill in candidates.
+        if (order == null || order.length < n + 1) {
+            order = new int[n + 1];
+            aux = new int[n];
+            keys = new long[n];
+            keyAux = new long[n];
+        }
+    }
+
+    /**
+     * Fills {@code order} with {@code p} followed by the points after
+     * {@code p} that share neither a row nor a column with it, in ascending
+     * order. The slope sort then puts {@code p} first, as it has the
+     * smallest slope to itself.
+     *
+     * @param p index of the anchor point
+     * @param n number of points
+     * @return the number of indices in {@code order}
+     */
+    private int candidates(int p, int n) {
+        int px = store.x(p), py = store.y(p);
+        order[0] = p;
+        int m = 1;
+        for (int i = p + 1; i < n; i++) {
+            order[m] = i;
+            m += (store.x(i) != px && store.y(i) != py) ? 1 : 0;
+        }
+        return m;
+    }
+
+    /**
+     * Processes the anchor {@code p} like find does, while timing each phase
+     * and recording the counters and the run lengths of the anchor.
+     *
+     * @param p index of the anchor point
+     * @param n number of points
+     */
+    private void measure(int p, int n) {
+        long start = System.nanoTime();
+        long sorted;
+        long comparisons = 0;
+        if (mode == Mode.SLOPE_KEYS) {
+            computeKeys(p, n);
+            long keyed = System.nanoTime();
+            stats.addTime(EngineStats.Phase.KEYS, keyed - start);
+            sortKeys(n);
+            sorted = System.nanoTime();
+            stats.addTime(EngineStats.Phase.SORT, sorted - keyed);
+            scanKeys(p, n);
+        }
+        else {
+            anchor = p;
+            comparisons = sort(0, n);
+            sorted = System.nanoTime();
+            stats.addTime(EngineStats.Phase.SORT, sorted - start);
+            scanComparator(p, n);
+        }
+        stats.addTime(EngineStats.Phase.SCAN, System.nanoTime() - sorted);
+        stats.addAnchor(mode == Mode.SLOPE_KEYS ? n - 1 : 0, comparisons);
+
+        // Count the runs in a separate pass, so that the scans stay as they
+        // are without statistics.
+        for (int first = 1, last = 2; first < n; last++) {
+            while (last < n && (mode == Mode.SLOPE_KEYS
+                                ? keys[first] == keys[last]
+                                : store.compareSlopes(p, order[first], order[last]) == 0))
+                last++;
+            stats.addRun(last - first);
+            first = last;
+        }
+    }
+
+    /**
+     * Adds the segments that start at {@code p}, with the indices sorted by
+     * slope to {@code p} by the comparator-driven merge sort.
+     *
+     * @param p index of the anchor point
+     * @param n number of points
+     */
+    private void scanComparator(int p, int n) {
+        int runs = 0;
+        for (int first = 1, last = 2; first < n; last++) {
+            // Keep going if the slopes are the same
+            while (last < n && store.compareSlopes(p, order[first], order[last]) == 0)
+                last++;
+
+            // Check to see if there are enough points in the line, If so,
+            // keep it.
+            if (last - first >= minPoints - 1)
+                aux[runs++] = first;
+
+            first = last;
+        }
+        report(p, n, runs);
+    }
+
+    /**
+     * Computes the direction key of every point from {@code p} once. Keys
+     * always group equal slopes, but only order them by slope while they are
+     * quotient keys (see PointStore.direction).
+     *
+     * @param p index of the anchor point
+     * @param n number of points
+     */
+    private void computeKeys(int p, int n) {
+        // Shift the keys so that the anchor gets key 0 and the others start
+        // at 1, which leaves the high bytes zero for the radix sort to skip.
+        long min = Long.MAX_VALUE;
+        for (int i = 1; i < n; i++) {
+            long key = store.direction(p, order[i]);
+            keys[i] = key;
+            min = Math.min(min, key);
+        }
+        keyShift = min - 1;
+        keys[0] = keyShift;
+        for (int i = 0; i < n; i++)
+            keys[i] -= keyShift;
+    }
+
+    /**
+     * Adds the segments that start at {@code p}, with the keys and indices
+     * sorted by sortKeys. Runs of equal slopes are found by comparing keys
+     * only.
+     *
+     * @param p index of the anchor point
+     * @param n number of points
+     */
+    private void scanKeys(int p, int n) {
+        int runs = 0;
+        for (int first = 1, last = 2; first < n; last++) {
+            // Keep going if the slopes are the same
+            while (last < n && keys[first] == keys[last])
+                last++;
+
+            // Check to see if there are enough points in the line, If so,
+            // keep it.
+            if (last - first >= minPoints - 1)
+                aux[runs++] = first;
+
+            first = last;
+        }
+        report(p, n, runs);
+    }
+
+    /**
+     * Reports the runs whose first index is in {@code aux[0, runs)}, unless
+     * a point before {@code p} has the same slope to {@code p}, which means
+     * the segment extends before {@code p} and is reported from a smaller
+     * anchor. The runs are in the order of the slope sort, so each earlier
+     * point takes one binary search. Dropped runs are marked by flipping
+     * their bits.
+     *
+     * @param p index of the anchor point
+     * @param n number of sorted indices
+     * @param runs number of runs
+     */
+    private void report(int p, int n, int runs) {
+        if (runs == 0)
+            return;
+        int px = store.x(p), py = store.y(p);
+        for (int q = 0; q < p; q++) {
+            if (store.x(q) == px || store.y(q) == py)
+                continue;
+            int run = findRun(p, q, runs);
+            if (run >= 0 && aux[run] >= 0)
+                aux[run] = ~aux[run];
+        }
+
+        for (int r = 0; r < runs; r++) {
+            if (aux[r] < 0)
+                continue;
+            int last = aux[r];
+            while (last + 1 < n && sameSlope(p, aux[r], last + 1))
+                last++;
+            sink.segment(p, order[last]);
+        }
+    }
+
+    /**
+     * Binary search for the run with the same slope to {@code p} as
+     * {@code q}.
+     *
+     * @param p index of the anchor point
+     * @param q index of a point before {@code p}
+     * @param runs number of runs in {@code aux}
+     * @return the position of the run in {@code aux}, or -1
+     */
+    private int findRun(int p, int q, int runs) {
+        long key = mode == Mode.SLOPE_KEYS ? store.direction(p, q) - keyShift : 0;
+        int lo = 0, hi = runs - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            int first = aux[mid] < 0 ? ~aux[mid] : aux[mid];
+            int cmp = mode == Mode.SLOPE_KEYS
+                      ? Long.compareUnsigned(keys[first], key)
+                      : store.compareSlopes(p, order[first], q);
+            if (cmp < 0)
+                lo = mid + 1;
+            else if (cmp > 0)
+                hi = mid - 1;
+            else
+                return mid;
+        }
+        return -1;
+    }
+
+    /**
+     * Returns whether the points at sorted positions i and j have the same
+     * slope to {@code p}.
+     *
+     * @param p index of the anchor point
+     * @param i first sorted position
+     * @param j second sorted position
+     * @return true if the slopes are equal
+     */
+    private boolean sameSlope(int p, int i, int j) {
+        if (mode == Mode.SLOPE_KEYS)
+            return keys[i] == keys[j];
+        return store.compareSlopes(p, order[i], order[j]) == 0;
+    }
+
+    /**
+     * Stable sort of {@code keys[0, n)} as unsigned longs, moving
+     * {@code order} along with the keys. Uses an LSD radix sort on the key
+     * bytes, skipping the bytes that are the same for every key.
+     *
+     * @param n number of keys
+     */
+    private void sortKeys(int n) {
+        if (n < INSERTION_SORT_CUTOFF) {
+            for (int i = 1; i < n; i++) {
+                long key = keys[i];
+                int index = order[i];
+                int j = i;
+                for (; j > 0 && Long.compareUnsigned(keys[j - 1], key) > 0; j--) {
+                    keys[j] = keys[j - 1];
+                    order[j] = order[j - 1];
+                }
+                keys[j] = key;
+                order[j] = index;
+            }
+            return;
+        }
+
+        long[] from = keys, to = keyAux;
+        int[] fromOrder = order, toOrder = aux;
+        for (int shift = 0; shift < 64; shift += 8) {
+            Arrays.fill(counts, 0);
+            for (int i = 0; i < n; i++)
+                counts[(int) ((from[i] >>> shift) & 0xff) + 1]++;
+            if (counts[(int) ((from[0] >>> shift) & 0xff) + 1] == n)
+                continue;
+            for (int r = 0; r < 256; r++)
+                counts[r + 1] += counts[r];
+            for (int i = 0; i < n; i++) {
+                int slot = counts[(int) ((from[i] >>> shift) & 0xff)]++;
+                to[slot] = from[i];
+                toOrder[slot] = fromOrder[i];
+            }
+            long[] keyTemp = from;
+            from = to;
+            to = keyTemp;
+            int[] orderTemp = fromOrder;
+            fromOrder = toOrder;
+            toOrder = orderTemp;
+        }
+
+        if (from != keys) {
+            System.arraycopy(from, 0, keys, 0, n);
+            System.arraycopy(fromOrder, 0, order, 0, n);
+        }
+    }
+
+    /**
+     * Stable merge sort of {@code order[lo, hi)} by slope to
+     * {@code anchor}. The comparisons are counted in a local and returned,
+     * so the sort writes no counter field and costs the same whether or not
+     * statistics are recorded.
+     *
+     * @param lo first index, inclusive
+     * @param hi last index, exclusive
+     * @return the number of slope comparisons made
+     */
+    private long sort(int lo, int hi) {
+        if (hi - lo < 2)
+            return 0;
+        int mid = (lo + hi) >>> 1;
+        long comparisons = sort(lo, mid) + sort(mid, hi) + 1;
+        if (store.compareSlopes(anchor, order[mid - 1], order[mid]) <= 0)
+            return comparisons;
+
+        System.arraycopy(order, lo, aux, lo, hi - lo);
+        for (int k = lo, i = lo, j = mid; k < hi; k++) {
+            if (i >= mid) {
+                order[k] = aux[j++];
+            }
+            else if (j >= hi) {
+                order[k] = aux[i++];
+            }
+            else {
+                comparisons++;
+                if (store.compareSlopes(anchor, aux[j], aux[i]) < 0)
+                    order[k] = aux[j++];
+                else
+                    order[k] = aux[i++];
+            }
+        }
+        return comparisons;
+    }
+}
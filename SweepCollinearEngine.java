@@ -0,0 +1,286 @@
+/* *****************************************************************************
+ *  Name: Willy Chang
+ *  Date: 10/18/2026
+ *  Description: SweepCollinearEngine
+ **************************************************************************** */
+
+public class SweepCollinearEngine implements CollinearEngine {
+    // No line, e.g. the end of a tree edge that never ends.
+    private static final int NONE = -1;
+
+    // Store being processed. Point i is the dual line y = x(i) * t - y(i),
+    // so the x-coordinate is the slope of the line.
+    private PointStore store;
+
+    // Dual lines from bottom to top along the cut.
+    private int[] order;
+
+    // Upper and lower horizon trees: the line that ends the tree edge of
+    // every line, or NONE. In the upper tree the steeper of two meeting
+    // lines goes on, in the lower tree the flatter one.
+    private int[] upper;
+    private int[] lower;
+
+    // Positions k whose lines order[k] and order[k + 1] may meet at a ready
+    // vertex, and whether a position is on the stack.
+    private int[] stack;
+    private boolean[] queued;
+    private int stackSize;
+
+    // Smallest number of points of a reported segment.
+    private final int minPoints;
+
+    /**
+     * Constructor for an engine that reports the segments of 4+ points.
+     */
+    public SweepCollinearEngine() {
+        this(4);
+    }
+
+    /**
+     * Constructor for an engine that reports the segments of at least
+     * {@code minPoints} points.
+     *
+     * @param minPoints smallest number of points of a reported segment, at
+     * least 2
+     */
+    public SweepCollinearEngine(int minPoints) {
+        if (minPoints < 2)
+            throw new IllegalArgumentException("A segment needs at least 2 points.");
+        this.minPoints = minPoints;
+    }
+
+    /**
+     * Finds every maximal line segment that connects at least
+     * {@code minPoints} points of the store with a topological sweep of the
+     * arrangement of the dual lines (Edelsbrunner and Guibas). Point (a, b)
+     * becomes the line y = a * t - b, and two points meet at t equal to the
+     * slope between them, so k collinear points become k dual lines through
+     * one vertex. Instead of a straight sweep line ordered by a heap, the
+     * sweep moves a cut that crosses every line once, kept with an upper and
+     * a lower horizon tree. Two neighbours of the cut whose tree edges end at
+     * each other meet at a ready vertex. The block of neighbours through it
+     * is reported if it has {@code minPoints} or more lines, then reversed,
+     * and only the tree edges of the block are walked again. A vertex is
+     * swept only once every line through it has reached it, which the tree
+     * edges at the two ends of the block show, so every segment is found
+     * once.
+     *
+     * <p>Every vertex is swept in amortized O(1) time plus the number of its
+     * lines, so the sweep takes O(n^2) time and O(n) memory without a sort
+     * or a heap. Vertical lines are parallel in the dual and horizontal
+     * lines meet at t = 0, so both are left to AxisAlignedPass.
+     *
+     * @param store points to process
+     * @param sink receives the segments
+     */
+    @Override
+    public void find(PointStore store, SegmentSink sink) {
+        AxisAlignedPass.find(store, minPoints, sink);
+        int n = store.size();
+        if (n < minPoints)
+            return;
+        init(store);
+
+        while (stackSize > 0) {
+            int k = stack[--stackSize];
+            queued[k] = false;
+            if (!ready(k))
+                continue;
+
+            // The lines through the vertex are a block of ready neighbours
+            // that meet at the same t.
+            int v = order[k], w = order[k + 1];
+            int lo = k, hi = k + 1;
+            while (lo > 0 && ready(lo - 1) && sameTime(order[lo - 1], order[lo], v, w))
+                lo--;
+            while (hi < n - 1 && ready(hi) && sameTime(order[hi], order[hi + 1], v, w))
+                hi++;
+
+            // A line through the vertex that has not reached it yet ends the
+            // tree edge of the bottom or top line of the block at the vertex.
+            // It is swept once that line arrives and its pair becomes ready.
+            int bottom = order[lo], top = order[hi];
+            if (upper[bottom] != NONE && sameTime(bottom, upper[bottom], v, w))
+                continue;
+            if (lower[top] != NONE && sameTime(top, lower[top], v, w))
+                continue;
+
+            if (hi - lo + 1 >= minPoints && store.y(v) != store.y(w)) {
+                int first = order[lo], last = order[lo];
+                for (int i = lo + 1; i <= hi; i++) {
+                    first = Math.min(first, order[i]);
+                    last = Math.max(last, order[i]);
+                }
+                sink.segment(first, last);
+            }
+            sweep(lo, hi);
+        }
+        this.store = null;
+    }
+
+    /**
+     * Sets up the cut at t = -infinity, where the lines are ordered from the
+     * largest x-coordinate to the smallest, breaking ties by the larger
+     * y-coordinate, builds both horizon trees and stacks the ready pairs.
+     *
+     * @param store points to process
+     */
+    private void init(PointStore store) {
+        int n = store.size();
+        this.store = store;
+        int[] byX = AxisAlignedPass.sortByX(store);
+        order = new int[n];
+        for (int i = 0; i < n; i++)
+            order[i] = byX[n - 1 - i];
+
+        upper = new int[n];
+        lower = new int[n];
+        for (int i = 0; i < n; i++)
+            upper[order[i]] = walkUpper(order[i], i > 0 ? order[i - 1] : NONE);
+        for (int i = n - 1; i >= 0; i--)
+            lower[order[i]] = walkLower(order[i], i < n - 1 ? order[i + 1] : NONE);
+
+        stack = new int[n - 1];
+        queued = new boolean[n - 1];
+        stackSize = 0;
+        for (int k = 0; k < n - 1; k++)
+            push(k);
+    }
+
+    /**
+     * Sweeps the vertex of the block of lines at positions lo to hi: the
+     * block is reversed, so the lines leave the vertex in the opposite
+     * order, and the tree edges of its lines are walked again, except the
+     * upper tree edge of the steepest line and the lower tree edge of the
+     * flattest, which go on through the vertex. Only the pairs at the
+     * borders of the block can become ready.
+     *
+     * @param lo position of the bottom line of the block
+     * @param hi position of the top line of the block
+     */
+    private void sweep(int lo, int hi) {
+        int n = order.length;
+        for (int i = lo, j = hi; i < j; i++, j--) {
+            int line = order[i];
+            order[i] = order[j];
+            order[j] = line;
+        }
+        for (int i = lo; i < hi; i++)
+            upper[order[i]] = walkUpper(order[i], i > 0 ? order[i - 1] : NONE);
+        for (int i = hi; i > lo; i--)
+            lower[order[i]] = walkLower(order[i], i < n - 1 ? order[i + 1] : NONE);
+
+        if (lo > 0)
+            push(lo - 1);
+        if (hi < n - 1)
+            push(hi);
+    }
+
+    /**
+     * Finds the upper tree edge of a line: walks the upper horizon of the
+     * lines below it, starting at its neighbour below, to the first line
+     * that meets it within that line's own tree edge. Only a steeper line
+     * can meet it to the right of the cut.
+     *
+     * @param line the line
+     * @param below the neighbour of the line below it on the cut, or NONE
+     * @return the line that ends the tree edge, or NONE
+     */
+    private int walkUpper(int line, int below) {
+        int k = below;
+        while (k != NONE) {
+            if (store.x(k) > store.x(line)
+                    && (upper[k] == NONE || compareTimes(line, k, k, upper[k]) <= 0))
+                break;
+            k = upper[k];
+        }
+        return k;
+    }
+
+    /**
+     * Finds the lower tree edge of a line: walks the lower horizon of the
+     * lines above it, starting at its neighbour above, to the first line
+     * that meets it within that line's own tree edge. Only a flatter line
+     * can meet it to the right of the cut.
+     *
+     * @param line the line
+     * @param above the neighbour of the line above it on the cut, or NONE
+     * @return the line that ends the tree edge, or NONE
+     */
+    private int walkLower(int line, int above) {
+        int k = above;
+        while (k != NONE) {
+            if (store.x(k) < store.x(line)
+                    && (lower[k] == NONE || compareTimes(line, k, k, lower[k]) <= 0))
+                break;
+            k = lower[k];
+        }
+        return k;
+    }
+
+    /**
+     * Returns whether the lines at positions k and k + 1 meet at a ready
+     * vertex, i.e. whether their tree edges end at each other.
+     *
+     * @param k position of the lower line
+     * @return true if the pair is ready
+     */
+    private boolean ready(int k) {
+        return upper[order[k + 1]] == order[k] && lower[order[k]] == order[k + 1];
+    }
+
+    /**
+     * Stacks position k, unless it is already on the stack.
+     *
+     * @param k position of the lower line of a pair
+     */
+    private void push(int k) {
+        if (!queued[k] && ready(k)) {
+            queued[k] = true;
+            stack[stackSize++] = k;
+        }
+    }
+
+    /**
+     * Returns whether lines i and j meet at the same t as lines k and m.
+     *
+     * @param i first line of the first pair
+     * @param j second line of the first pair
+     * @param k first line of the second pair
+     * @param m second line of the second pair
+     * @return true if both pairs meet at the same t
+     */
+    private boolean sameTime(int i, int j, int k, int m) {
+        return compareTimes(i, j, k, m) == 0;
+    }
+
+    /**
+     * Compares the t at which lines i and j meet with the t at which lines
+     * k and m meet, exactly. Lines i and j meet at
+     * t = (y(i) - y(j)) / (x(i) - x(j)), and both pairs must have different
+     * slopes.
+     *
+     * @param i first line of the first pair
+     * @param j second line of the first pair
+     * @param k first line of the second pair
+     * @param m second line of the second pair
+     * @return -1, 0 or 1 as the first t is less than, equal to, or greater
+     * than the second
+     */
+    private int compareTimes(int i, int j, int k, int m) {
+        long num1 = (long) store.y(i) - store.y(j);
+        long den1 = (long) store.x(i) - store.x(j);
+        long num2 = (long) store.y(k) - store.y(m);
+        long den2 = (long) store.x(k) - store.x(m);
+        if (den1 < 0) {
+            num1 = -num1;
+            den1 = -den1;
+        }
+        if (den2 < 0) {
+            num2 = -num2;
+            den2 = -den2;
+        }
+        return Slopes.compareProducts(num1, den2, num2, den1);
+    }
+}